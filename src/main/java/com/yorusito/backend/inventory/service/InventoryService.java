@@ -6,26 +6,46 @@ import com.yorusito.backend.inventory.entity.InventoryMovement;
 import com.yorusito.backend.inventory.repository.InventoryAlertRepository;
 import com.yorusito.backend.inventory.repository.InventoryMovementRepository;
 import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.event.StockAjustadoEvent;
 import com.yorusito.backend.product.repository.ProductoRepository;
+import com.yorusito.backend.shared.enums.InventoryMovementType;
 import com.yorusito.backend.shared.exception.BadRequestException;
 import com.yorusito.backend.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
     
+    private static final int DEFAULT_MIN_STOCK = 10;
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO inventory_movements (producto_id, tipo, cantidad, stock_anterior, stock_actual, motivo, " +
+            "fecha_movimiento, usuario_responsable) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ALERT =
+            "INSERT INTO inventory_alerts (producto_id, stock_minimo, stock_actual, mensaje, fecha_alerta, activa, notificada) " +
+            "VALUES (?, ?, ?, ?, ?, TRUE, FALSE)";
+    
     private final InventoryMovementRepository movementRepository;
     private final InventoryAlertRepository alertRepository;
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
     
     @Transactional
     public InventoryMovementResponse createMovement(InventoryMovementRequest request, String userEmail) {
@@ -55,6 +75,7 @@ public class InventoryService {
         // Actualizar stock del producto
         producto.setStock(stockActual);
         productoRepository.save(producto);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProducto(producto.getId()));
         
         // Crear movimiento
         InventoryMovement movement = InventoryMovement.builder()
@@ -76,6 +97,61 @@ public class InventoryService {
         return mapToMovementResponse(movement);
     }
     
+    /**
+     * Registra un movimiento AJUSTE por producto de una actualización masiva y
+     * sincroniza las alertas de stock bajo con sentencias por lote. Corre dentro
+     * de la transacción del lote, así que los movimientos se confirman o revierten
+     * junto con el stock.
+     */
+    @EventListener
+    @Transactional
+    public void onStockAdjusted(StockAjustadoEvent event) {
+        List<StockAjustadoEvent.CambioStock> changes = event.cambios();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_MOVEMENT, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.productoId());
+            ps.setString(2, InventoryMovementType.AJUSTE.name());
+            ps.setInt(3, change.stockActual());
+            ps.setInt(4, change.stockAnterior());
+            ps.setInt(5, change.stockActual());
+            ps.setString(6, event.motivo() != null ? event.motivo() : "Actualización masiva");
+            ps.setTimestamp(7, now);
+            ps.setString(8, event.usuario());
+        });
+        
+        List<Long> recovered = changes.stream()
+                .filter(change -> change.stockActual() > DEFAULT_MIN_STOCK)
+                .map(StockAjustadoEvent.CambioStock::productoId)
+                .toList();
+        if (!recovered.isEmpty()) {
+            jdbcTemplate.update("UPDATE inventory_alerts SET activa = FALSE WHERE activa = TRUE AND producto_id IN (:ids)",
+                    Map.of("ids", recovered));
+        }
+        
+        List<StockAjustadoEvent.CambioStock> low = changes.stream()
+                .filter(change -> change.stockActual() <= DEFAULT_MIN_STOCK)
+                .toList();
+        if (!low.isEmpty()) {
+            Set<Long> alreadyAlerted = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT producto_id FROM inventory_alerts WHERE activa = TRUE AND producto_id IN (:ids)",
+                    Map.of("ids", low.stream().map(StockAjustadoEvent.CambioStock::productoId).toList()),
+                    Long.class));
+            List<StockAjustadoEvent.CambioStock> newAlerts = low.stream()
+                    .filter(change -> !alreadyAlerted.contains(change.productoId()))
+                    .toList();
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ALERT, newAlerts, newAlerts.size(), (ps, change) -> {
+                ps.setLong(1, change.productoId());
+                ps.setInt(2, DEFAULT_MIN_STOCK);
+                ps.setInt(3, change.stockActual());
+                ps.setString(4, change.stockActual() == 0 ?
+                        "Producto agotado" :
+                        "Stock bajo: " + change.stockActual() + " unidades restantes");
+                ps.setTimestamp(5, now);
+            });
+        }
+    }
+    
     @Transactional(readOnly = true)
     public Page<InventoryMovementResponse> getMovements(Long productoId, Pageable pageable) {
         Page<InventoryMovement> movements;
@@ -99,7 +175,7 @@ public class InventoryService {
     
     @Transactional(readOnly = true)
     public List<ProductStockResponse> getAllProductsStock() {
-        List<Producto> productos = productoRepository.findAll();
+        List<Producto> productos = productoRepository.findAllConCategoria();
         return productos.stream()
                 .map(this::mapToProductStockResponse)
                 .collect(Collectors.toList());
@@ -107,7 +183,7 @@ public class InventoryService {
     
     @Transactional(readOnly = true)
     public List<ProductStockResponse> getLowStockProducts() {
-        List<Producto> productos = productoRepository.findAll();
+        List<Producto> productos = productoRepository.findAllConCategoria();
         return productos.stream()
                 .filter(p -> p.getStock() <= 10) // Consideramos stock bajo cuando es <= 10
                 .map(this::mapToProductStockResponse)
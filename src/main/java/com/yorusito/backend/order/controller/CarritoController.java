@@ -1,9 +1,14 @@
 package com.yorusito.backend.order.controller;
 
 import com.yorusito.backend.order.dto.CarritoItemResponse;
+import com.yorusito.backend.order.dto.CarritoLoteRequest;
 import com.yorusito.backend.order.dto.CarritoRequest;
 import com.yorusito.backend.order.dto.CarritoResponse;
+import com.yorusito.backend.order.dto.CarritoResumenResponse;
+import com.yorusito.backend.order.dto.DisponibilidadResponse;
+import com.yorusito.backend.order.dto.LimpiezaCarritosResponse;
 import com.yorusito.backend.order.service.CarritoService;
+import com.yorusito.backend.order.service.LimpiezaCarritos;
 import com.yorusito.backend.whatsapp.dto.WhatsAppResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,8 +17,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/carrito")
 @RequiredArgsConstructor
@@ -22,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class CarritoController {
 
     private final CarritoService carritoService;
+    private final LimpiezaCarritos limpiezaCarritos;
 
     @GetMapping
     @Operation(summary = "Obtener carrito", description = "Obtiene el carrito del usuario autenticado")
@@ -29,14 +38,32 @@ public class CarritoController {
         return ResponseEntity.ok(carritoService.obtenerCarrito());
     }
 
+    @GetMapping("/resumen")
+    @Operation(summary = "Resumen del carrito", description = "Cantidad de items, unidades y total del carrito, para el contador de la tienda")
+    public ResponseEntity<CarritoResumenResponse> obtenerResumen() {
+        return ResponseEntity.ok(carritoService.obtenerResumen());
+    }
+
+    @GetMapping("/disponibilidad")
+    @Operation(summary = "Disponibilidad de productos", description = "Stock disponible para la venta (stock menos reservas vigentes de los carritos)")
+    public ResponseEntity<List<DisponibilidadResponse>> obtenerDisponibilidad(@RequestParam List<Long> productoIds) {
+        return ResponseEntity.ok(carritoService.obtenerDisponibilidad(productoIds));
+    }
+
     @PostMapping("/agregar")
     @Operation(summary = "Agregar producto al carrito", description = "Agrega un producto al carrito del usuario")
     public ResponseEntity<CarritoItemResponse> agregarProducto(@Valid @RequestBody CarritoRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED).body(carritoService.agregarProducto(request));
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Sincronizar carrito", description = "Aplica una lista de operaciones (agregar, establecer cantidad, quitar) en una sola llamada y devuelve el carrito resultante")
+    public ResponseEntity<CarritoResponse> aplicarOperaciones(@Valid @RequestBody CarritoLoteRequest request) {
+        return ResponseEntity.ok(carritoService.aplicarOperaciones(request));
+    }
+
     @DeleteMapping("/eliminar/{id}")
-    @Operation(summary = "Eliminar producto del carrito", description = "Elimina un producto específico del carrito")
+    @Operation(summary = "Eliminar producto del carrito", description = "Elimina un producto específico del carrito; el id es el de la línea, que coincide con el del producto")
     public ResponseEntity<Void> eliminarProducto(@PathVariable Long id) {
         carritoService.eliminarProducto(id);
         return ResponseEntity.noContent().build();
@@ -49,6 +76,13 @@ public class CarritoController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/limpieza")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Limpiar carritos abandonados", description = "Ejecuta ahora la limpieza de carritos inactivos e informa filas eliminadas y duración (ADMIN)")
+    public ResponseEntity<LimpiezaCarritosResponse> limpiarAbandonados() {
+        return ResponseEntity.ok(limpiezaCarritos.limpiar());
+    }
+
     @PostMapping("/whatsapp")
     @Operation(summary = "Enviar a WhatsApp", description = "Genera un enlace de WhatsApp con el contenido del carrito")
     public ResponseEntity<WhatsAppResponseDTO> enviarCarritoAWhatsApp() {
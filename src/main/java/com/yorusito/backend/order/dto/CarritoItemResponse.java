@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CarritoItemResponse {
+    /** Clave de la línea: el id del producto, único dentro del carrito y estable entre respuestas. */
     private Long id;
     private ProductoResponse producto;
     private Integer cantidad;
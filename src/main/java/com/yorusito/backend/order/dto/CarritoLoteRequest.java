@@ -0,0 +1,47 @@
+package com.yorusito.backend.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarritoLoteRequest {
+
+    @NotEmpty(message = "Debe indicar al menos una operación")
+    @Size(max = 200, message = "No se pueden enviar más de 200 operaciones")
+    private List<@Valid @NotNull Operacion> operaciones;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operacion {
+
+        @NotNull(message = "El tipo de operación es obligatorio")
+        private TipoOperacion tipo;
+
+        @NotNull(message = "El ID del producto es obligatorio")
+        private Long productoId;
+
+        /** Unidades a sumar (AGREGAR) o cantidad final (ESTABLECER, 0 quita el producto); QUITAR la ignora. */
+        @Min(value = 0, message = "La cantidad no puede ser negativa")
+        private Integer cantidad;
+    }
+
+    public enum TipoOperacion {
+        AGREGAR,
+        ESTABLECER,
+        QUITAR
+    }
+}
@@ -0,0 +1,18 @@
+package com.yorusito.backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarritoResumenResponse {
+    private Integer totalItems;
+    private Integer unidades;
+    private BigDecimal total;
+}
@@ -0,0 +1,17 @@
+package com.yorusito.backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadResponse {
+    private Long productoId;
+    private Integer stock;
+    private Integer reservado;
+    private Integer disponible;
+}
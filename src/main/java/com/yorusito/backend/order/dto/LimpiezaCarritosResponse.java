@@ -0,0 +1,20 @@
+package com.yorusito.backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimpiezaCarritosResponse {
+    private LocalDateTime inactivosDesde;
+    private Integer carritos;
+    private Integer filasEliminadas;
+    private Integer lotes;
+    private Long duracionMs;
+}
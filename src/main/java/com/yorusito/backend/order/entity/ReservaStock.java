@@ -0,0 +1,39 @@
+package com.yorusito.backend.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia persistida de una reserva de stock, para recuperarlas tras un reinicio.
+ * La fuente de verdad mientras la aplicación corre es el registro en memoria.
+ */
+@Entity
+@Table(name = "reservas_stock",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"usuario_id", "producto_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
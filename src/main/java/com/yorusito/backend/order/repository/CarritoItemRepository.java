@@ -2,25 +2,45 @@ package com.yorusito.backend.order.repository;
 
 import com.yorusito.backend.auth.entity.Usuario;
 import com.yorusito.backend.order.entity.CarritoItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CarritoItemRepository extends JpaRepository<CarritoItem, Long> {
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
     List<CarritoItem> findByUsuarioId(Long usuarioId);
+
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
     List<CarritoItem> findByUsuarioOrderByFechaAgregadoDesc(Usuario usuario);
+
     Optional<CarritoItem> findByUsuarioIdAndProductoId(Long usuarioId, Long productoId);
+
+    /**
+     * Líneas del carrito sin hidratar producto ni usuario, para armar el agregado en memoria
+     */
+    @Query("SELECT c.id AS id, c.producto.id AS productoId, c.cantidad AS cantidad, " +
+           "c.precioUnitario AS precioUnitario, c.fechaAgregado AS fechaAgregado " +
+           "FROM CarritoItem c WHERE c.usuario.id = :usuarioId ORDER BY c.id")
+    List<LineaCarrito> findLineasByUsuarioId(@Param("usuarioId") Long usuarioId);
     
     @Modifying
     @Query("DELETE FROM CarritoItem c WHERE c.usuario.id = :usuarioId")
     void deleteAllByUsuarioId(@Param("usuarioId") Long usuarioId);
-    
-    @Query("SELECT SUM(c.subtotal) FROM CarritoItem c WHERE c.usuario.id = :usuarioId")
-    Double getTotalByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    interface LineaCarrito {
+        Long getId();
+        Long getProductoId();
+        Integer getCantidad();
+        BigDecimal getPrecioUnitario();
+        LocalDateTime getFechaAgregado();
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,4 +36,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.fechaCreacion BETWEEN :startDate AND :endDate")
     Long countByFechaCreacionBetween(@Param("startDate") LocalDateTime startDate, 
                                    @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Productos de cada orden con id mayor a {@code desde}; con 0 recorre todo el historial.
+     */
+    @Query("SELECT o.id AS ordenId, i.producto.id AS productoId " +
+           "FROM Order o JOIN o.items i WHERE o.id > :desde AND o.estado NOT IN :excluidos")
+    List<ProductoEnOrden> findProductosEnOrdenes(@Param("desde") long desde,
+                                                @Param("excluidos") Collection<OrderStatus> excluidos);
+
+    interface ProductoEnOrden {
+        Long getOrdenId();
+        Long getProductoId();
+    }
 }
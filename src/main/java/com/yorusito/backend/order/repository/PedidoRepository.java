@@ -5,8 +5,11 @@ import com.yorusito.backend.shared.enums.EstadoPedido;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,29 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     Page<Pedido> findByUsuarioIdOrderByFechaPedidoDesc(Long usuarioId, Pageable pageable);
     List<Pedido> findByEstadoOrderByFechaPedidoDesc(EstadoPedido estado);
     Page<Pedido> findAllByOrderByFechaPedidoDesc(Pageable pageable);
+
+    @Query("SELECT i.producto.id AS productoId, i.cantidad AS cantidad, p.fechaPedido AS fechaPedido " +
+           "FROM Pedido p JOIN p.items i " +
+           "WHERE p.fechaPedido >= :desde AND p.estado <> :excluido")
+    List<VentaProducto> findVentasDesde(@Param("desde") LocalDateTime desde,
+                                        @Param("excluido") EstadoPedido excluido);
+
+    /**
+     * Productos de cada pedido con id mayor a {@code desde}; con 0 recorre todo el historial.
+     */
+    @Query("SELECT p.id AS cestaId, i.producto.id AS productoId " +
+           "FROM Pedido p JOIN p.items i WHERE p.id > :desde AND p.estado <> :excluido")
+    List<ProductoEnCesta> findProductosEnCestas(@Param("desde") long desde,
+                                                @Param("excluido") EstadoPedido excluido);
+
+    interface VentaProducto {
+        Long getProductoId();
+        Integer getCantidad();
+        LocalDateTime getFechaPedido();
+    }
+
+    interface ProductoEnCesta {
+        Long getCestaId();
+        Long getProductoId();
+    }
 }
@@ -0,0 +1,21 @@
+package com.yorusito.backend.order.repository;
+
+import com.yorusito.backend.order.entity.ReservaStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReservaStockRepository extends JpaRepository<ReservaStock, Long> {
+
+    List<ReservaStock> findByExpiraEnAfter(LocalDateTime fecha);
+
+    @Modifying
+    @Query("DELETE FROM ReservaStock r WHERE r.expiraEn <= :fecha")
+    int deleteVencidas(@Param("fecha") LocalDateTime fecha);
+}
@@ -2,12 +2,17 @@ package com.yorusito.backend.order.service;
 
 import com.yorusito.backend.auth.entity.Usuario;
 import com.yorusito.backend.order.dto.*;
+import com.yorusito.backend.order.dto.CarritoLoteRequest.Operacion;
 import com.yorusito.backend.order.entity.CarritoItem;
 import com.yorusito.backend.order.repository.CarritoItemRepository;
-import com.yorusito.backend.product.dto.CategoriaResponse;
+import com.yorusito.backend.order.service.CarritosEnMemoria.Carrito;
+import com.yorusito.backend.order.service.CarritosEnMemoria.Linea;
 import com.yorusito.backend.product.dto.ProductoResponse;
 import com.yorusito.backend.product.entity.Producto;
 import com.yorusito.backend.product.repository.ProductoRepository;
+import com.yorusito.backend.product.service.CatalogoMapper;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import com.yorusito.backend.product.snapshot.CatalogoSnapshot;
 import com.yorusito.backend.whatsapp.dto.WhatsAppResponseDTO;
 import com.yorusito.backend.whatsapp.service.WhatsAppService;
 import lombok.RequiredArgsConstructor;
@@ -17,45 +22,56 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Operaciones sobre el carrito del usuario autenticado. El carrito vive en
+ * {@link CarritosEnMemoria} y los productos se leen del catálogo publicado, así
+ * que consultar y modificar el carrito no hace viajes a la base de datos; las
+ * escrituras se vuelcan en segundo plano y antes del checkout.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class CarritoService {
 
     private final CarritoItemRepository carritoItemRepository;
     private final ProductoRepository productoRepository;
     private final WhatsAppService whatsAppService;
+    private final CarritosEnMemoria carritos;
+    private final CatalogoPublicado catalogoPublicado;
+    private final CatalogoMapper catalogoMapper;
+    private final ReservasStock reservas;
 
     public CarritoResponse obtenerCarrito() {
         Usuario usuario = getUsuarioAutenticado();
-        List<CarritoItem> items = carritoItemRepository.findByUsuarioId(usuario.getId());
-        
-        List<CarritoItemResponse> itemResponses = items.stream()
-                .map(this::convertirACarritoItemResponse)
-                .collect(Collectors.toList());
-
-        BigDecimal total = items.stream()
-                .map(CarritoItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return carritos.leer(usuario.getId(), this::convertirACarritoResponse);
+    }
 
-        return CarritoResponse.builder()
-                .items(itemResponses)
-                .total(total)
-                .totalItems(items.size())
-                .build();
+    /**
+     * Cantidad de items y total del carrito, leídos de los agregados sin armar las líneas
+     */
+    public CarritoResumenResponse obtenerResumen() {
+        Usuario usuario = getUsuarioAutenticado();
+        return carritos.leer(usuario.getId(), carrito -> CarritoResumenResponse.builder()
+                .totalItems(carrito.cantidadLineas())
+                .unidades(carrito.unidades())
+                .total(carrito.total())
+                .build());
     }
 
     public CarritoItemResponse agregarProducto(CarritoRequest request) {
         Usuario usuario = getUsuarioAutenticado();
-        
-        Producto producto = productoRepository.findById(request.getProductoId())
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+        ProductoResponse producto = buscarProducto(request.getProductoId());
 
-        if (!producto.getActivo()) {
+        if (!Boolean.TRUE.equals(producto.getActivo())) {
             throw new RuntimeException("El producto no está disponible");
         }
 
@@ -63,99 +79,258 @@ public class CarritoService {
             throw new RuntimeException("Stock insuficiente");
         }
 
-        // Verificar si el producto ya está en el carrito
-        Optional<CarritoItem> itemExistente = carritoItemRepository
-                .findByUsuarioIdAndProductoId(usuario.getId(), producto.getId());
-
-        CarritoItem carritoItem;
-        if (itemExistente.isPresent()) {
-            carritoItem = itemExistente.get();
-            int nuevaCantidad = carritoItem.getCantidad() + request.getCantidad();
-            
-            if (producto.getStock() < nuevaCantidad) {
-                throw new RuntimeException("Stock insuficiente para la cantidad solicitada");
-            }
-            
-            carritoItem.setCantidad(nuevaCantidad);
-        } else {
-            carritoItem = CarritoItem.builder()
-                    .usuario(usuario)
-                    .producto(producto)
-                    .cantidad(request.getCantidad())
-                    .precioUnitario(producto.getPrecio())
-                    .build();
-        }
+        return carritos.modificar(usuario.getId(), carrito -> {
+            // Verificar si el producto ya está en el carrito
+            Linea linea = carrito.linea(producto.getId());
+            if (linea != null) {
+                int nuevaCantidad = linea.cantidad() + request.getCantidad();
 
-        carritoItem = carritoItemRepository.save(carritoItem);
-        return convertirACarritoItemResponse(carritoItem);
+                // La reserva descuenta lo que otros usuarios ya tienen apartado
+                if (!reservas.reservar(producto.getId(), usuario.getId(), nuevaCantidad, producto.getStock())) {
+                    throw new RuntimeException("Stock insuficiente para la cantidad solicitada");
+                }
+
+                carrito.cambiarCantidad(linea, nuevaCantidad);
+            } else {
+                if (!reservas.reservar(producto.getId(), usuario.getId(), request.getCantidad(), producto.getStock())) {
+                    throw new RuntimeException("Stock insuficiente");
+                }
+                linea = carrito.agregar(producto.getId(), request.getCantidad(), producto.getPrecio());
+            }
+            return convertirACarritoItemResponse(linea, producto);
+        });
     }
 
-    public void eliminarProducto(Long carritoItemId) {
+    /**
+     * Aplica una lista de operaciones sobre el carrito de una sola vez. Los
+     * productos involucrados se leen con una única consulta y se valida el
+     * resultado final de todas las operaciones antes de tocar el carrito: si
+     * alguna falla no se aplica ninguna. Los cambios se vuelcan en una sola
+     * transacción.
+     */
+    public CarritoResponse aplicarOperaciones(CarritoLoteRequest request) {
         Usuario usuario = getUsuarioAutenticado();
-        
-        CarritoItem carritoItem = carritoItemRepository.findById(carritoItemId)
-                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
+        Set<Long> productoIds = request.getOperaciones().stream()
+                .map(Operacion::getProductoId)
+                .collect(Collectors.toSet());
+        Map<Long, Producto> productos = productoRepository.findAllById(productoIds).stream()
+                .collect(Collectors.toMap(Producto::getId, producto -> producto));
 
-        if (!carritoItem.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("No tienes permiso para eliminar este item");
-        }
+        carritos.modificar(usuario.getId(), carrito -> {
+            // Cantidad final de cada producto tras aplicar las operaciones en orden
+            Map<Long, Integer> cantidades = new LinkedHashMap<>();
+            for (Operacion operacion : request.getOperaciones()) {
+                Long productoId = operacion.getProductoId();
+                int actual = cantidades.computeIfAbsent(productoId, id -> {
+                    Linea linea = carrito.linea(id);
+                    return linea != null ? linea.cantidad() : 0;
+                });
+                cantidades.put(productoId, switch (operacion.getTipo()) {
+                    case AGREGAR -> actual + cantidadRequerida(operacion, 1);
+                    case ESTABLECER -> cantidadRequerida(operacion, 0);
+                    case QUITAR -> 0;
+                });
+            }
 
-        carritoItemRepository.delete(carritoItem);
+            // Reducir o quitar una línea no depende del stock ni de que el producto siga activo
+            cantidades.forEach((productoId, cantidad) -> {
+                Linea linea = carrito.linea(productoId);
+                if (cantidad == 0 || (linea != null && cantidad <= linea.cantidad())) {
+                    return;
+                }
+                Producto producto = productos.get(productoId);
+                if (producto == null) {
+                    throw new RuntimeException("Producto no encontrado: " + productoId);
+                }
+                if (!producto.getActivo()) {
+                    throw new RuntimeException("El producto no está disponible: " + producto.getNombre());
+                }
+            });
+
+            // Reservas con las cantidades finales; si una no alcanza se restauran las anteriores
+            Map<Long, Integer> anteriores = new HashMap<>();
+            try {
+                cantidades.forEach((productoId, cantidad) -> {
+                    Linea linea = carrito.linea(productoId);
+                    if (cantidad == 0 || (linea != null && linea.cantidad() == cantidad)) {
+                        return;
+                    }
+                    int anterior = reservas.reservada(productoId, usuario.getId());
+                    if (linea != null && cantidad < linea.cantidad()) {
+                        reservas.restaurar(productoId, usuario.getId(), cantidad);
+                    } else {
+                        Producto producto = productos.get(productoId);
+                        if (!reservas.reservar(productoId, usuario.getId(), cantidad, producto.getStock())) {
+                            throw new RuntimeException("Stock insuficiente para el producto: " + producto.getNombre());
+                        }
+                    }
+                    anteriores.put(productoId, anterior);
+                });
+            } catch (RuntimeException e) {
+                anteriores.forEach((productoId, anterior) -> reservas.restaurar(productoId, usuario.getId(), anterior));
+                throw e;
+            }
+
+            cantidades.forEach((productoId, cantidad) -> {
+                Linea linea = carrito.linea(productoId);
+                if (linea == null) {
+                    if (cantidad > 0) {
+                        carrito.agregar(productoId, cantidad, productos.get(productoId).getPrecio());
+                    }
+                } else if (cantidad == 0) {
+                    carrito.quitar(linea);
+                    reservas.liberar(productoId, usuario.getId());
+                } else if (linea.cantidad() != cantidad) {
+                    carrito.cambiarCantidad(linea, cantidad);
+                }
+            });
+            return null;
+        });
+
+        // Se responde después del volcado para que las líneas nuevas ya tengan su id;
+        // si falla, las operaciones quedan aplicadas y se reintentan en el próximo volcado
+        carritos.persistir(usuario.getId());
+        return carritos.leer(usuario.getId(), this::convertirACarritoResponse);
+    }
+
+    public void eliminarProducto(Long productoId) {
+        Usuario usuario = getUsuarioAutenticado();
+        carritos.modificar(usuario.getId(), carrito -> {
+            Linea linea = carrito.linea(productoId);
+            if (linea == null) {
+                throw new RuntimeException("Item del carrito no encontrado");
+            }
+            carrito.quitar(linea);
+            reservas.liberar(linea.productoId(), usuario.getId());
+            return null;
+        });
     }
 
     public void vaciarCarrito() {
         Usuario usuario = getUsuarioAutenticado();
-        carritoItemRepository.deleteAllByUsuarioId(usuario.getId());
+        carritos.modificar(usuario.getId(), carrito -> {
+            List<Long> productoIds = carrito.lineas().stream().map(Linea::productoId).toList();
+            carrito.vaciar();
+            reservas.liberar(productoIds, usuario.getId());
+            return null;
+        });
     }
 
+    /**
+     * Items del carrito tal como quedaron en la base de datos, con sus productos
+     * gestionados por la transacción en curso. Antes se vuelcan los cambios
+     * pendientes del carrito en memoria; si no se pueden guardar se lanza una
+     * excepción, porque la base de datos no reflejaría el carrito actual.
+     */
+    @Transactional
     public List<CarritoItem> obtenerItemsDelCarrito(Long usuarioId) {
+        persistirOFallar(usuarioId);
         return carritoItemRepository.findByUsuarioId(usuarioId);
     }
 
+    /**
+     * Borra el carrito dentro de la transacción del pedido y descarta la copia en
+     * memoria, que se vuelve a cargar en el próximo acceso. Al confirmarse el
+     * pedido se liberan las reservas de los productos comprados y las de las
+     * líneas que solo estaban en memoria, que se pierden con el carrito.
+     */
+    @Transactional
+    public void vaciarTrasPedido(Long usuarioId, Collection<Long> productoIds) {
+        carritoItemRepository.deleteAllByUsuarioId(usuarioId);
+        Set<Long> reservados = new HashSet<>(productoIds);
+        reservados.addAll(carritos.descartar(usuarioId));
+        reservas.liberarAlConfirmar(reservados, usuarioId);
+    }
+
+    /**
+     * Stock disponible para la venta de cada producto: stock menos las reservas
+     * vigentes de todos los carritos. Los ids que no existen se omiten.
+     */
+    public List<DisponibilidadResponse> obtenerDisponibilidad(List<Long> productoIds) {
+        CatalogoSnapshot snapshot = catalogoPublicado.actual();
+        return productoIds.stream()
+                .distinct()
+                .map(snapshot::producto)
+                .flatMap(Optional::stream)
+                .map(producto -> {
+                    int reservado = reservas.reservadas(producto.getId());
+                    return DisponibilidadResponse.builder()
+                            .productoId(producto.getId())
+                            .stock(producto.getStock())
+                            .reservado(reservado)
+                            .disponible(Math.max(0, producto.getStock() - reservado))
+                            .build();
+                })
+                .toList();
+    }
+
     private Usuario getUsuarioAutenticado() {
         return (Usuario) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 
-    private CarritoItemResponse convertirACarritoItemResponse(CarritoItem item) {
-        ProductoResponse productoResponse = convertirAProductoResponse(item.getProducto());
-        
-        return CarritoItemResponse.builder()
-                .id(item.getId())
-                .producto(productoResponse)
-                .cantidad(item.getCantidad())
-                .precioUnitario(item.getPrecioUnitario())
-                .subtotal(item.getSubtotal())
-                .fechaAgregado(item.getFechaAgregado())
-                .build();
+    private void persistirOFallar(Long usuarioId) {
+        if (!carritos.persistir(usuarioId)) {
+            throw new RuntimeException("No se pudo guardar el carrito, intenta nuevamente");
+        }
+    }
+
+    private int cantidadRequerida(Operacion operacion, int minimo) {
+        if (operacion.getCantidad() == null || operacion.getCantidad() < minimo) {
+            throw new RuntimeException("Cantidad inválida para " + operacion.getTipo()
+                    + " del producto " + operacion.getProductoId());
+        }
+        return operacion.getCantidad();
+    }
+
+    private ProductoResponse buscarProducto(Long productoId) {
+        return catalogoPublicado.actual().producto(productoId)
+                .or(() -> productoRepository.findConRelacionesByIdIn(List.of(productoId)).stream()
+                        .findFirst()
+                        .map(catalogoMapper::aResponse))
+                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
     }
 
-    private ProductoResponse convertirAProductoResponse(Producto producto) {
-        CategoriaResponse categoriaResponse = CategoriaResponse.builder()
-                .id(producto.getCategoria().getId())
-                .nombre(producto.getCategoria().getNombre())
-                .descripcion(producto.getCategoria().getDescripcion())
-                .fechaCreacion(producto.getCategoria().getFechaCreacion())
+    private CarritoResponse convertirACarritoResponse(Carrito carrito) {
+        CatalogoSnapshot snapshot = catalogoPublicado.actual();
+        List<Long> faltantes = carrito.lineas().stream()
+                .map(Linea::productoId)
+                .filter(id -> snapshot.producto(id).isEmpty())
+                .toList();
+        // Solo mientras el catálogo no está publicado (o si un producto se acaba de crear)
+        Map<Long, ProductoResponse> deLaBase = faltantes.isEmpty() ? Map.of()
+                : productoRepository.findConRelacionesByIdIn(faltantes).stream()
+                        .collect(Collectors.toMap(Producto::getId, catalogoMapper::aResponse));
+
+        List<CarritoItemResponse> itemResponses = carrito.lineas().stream()
+                .map(linea -> convertirACarritoItemResponse(linea, snapshot.producto(linea.productoId())
+                        .orElse(deLaBase.get(linea.productoId()))))
+                .collect(Collectors.toList());
+
+        return CarritoResponse.builder()
+                .items(itemResponses)
+                .total(carrito.total())
+                .totalItems(carrito.cantidadLineas())
                 .build();
+    }
 
-        return ProductoResponse.builder()
-                .id(producto.getId())
-                .nombre(producto.getNombre())
-                .descripcion(producto.getDescripcion())
-                .precio(producto.getPrecio())
-                .stock(producto.getStock())
-                .imagenUrl(producto.getImagenUrl())
-                .categoria(categoriaResponse)
-                .activo(producto.getActivo())
-                .fechaCreacion(producto.getFechaCreacion())
-                .fechaActualizacion(producto.getFechaActualizacion())
+    private CarritoItemResponse convertirACarritoItemResponse(Linea linea, ProductoResponse producto) {
+        return CarritoItemResponse.builder()
+                .id(linea.productoId())
+                .producto(producto)
+                .cantidad(linea.cantidad())
+                .precioUnitario(linea.precioUnitario())
+                .subtotal(linea.subtotal())
+                .fechaAgregado(linea.fechaAgregado())
                 .build();
     }
     
     /**
      * Enviar carrito a WhatsApp
      */
+    @Transactional(readOnly = true)
     public WhatsAppResponseDTO enviarCarritoAWhatsApp() {
         Usuario usuario = getUsuarioAutenticado();
+        persistirOFallar(usuario.getId());
         List<CarritoItem> items = carritoItemRepository.findByUsuarioOrderByFechaAgregadoDesc(usuario);
         
         if (items.isEmpty()) {
@@ -165,10 +340,7 @@ public class CarritoService {
         // Generar enlace de WhatsApp
         String enlaceWhatsApp = whatsAppService.generarEnlaceWhatsApp(usuario, items);
         
-        // Calcular total
-        BigDecimal total = items.stream()
-                .map(item -> item.getProducto().getPrecio().multiply(BigDecimal.valueOf(item.getCantidad())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = carritos.leer(usuario.getId(), Carrito::total);
         
         // Preparar respuesta
         WhatsAppResponseDTO response = WhatsAppResponseDTO.builder()
@@ -0,0 +1,479 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.repository.CarritoItemRepository;
+import com.yorusito.backend.order.repository.CarritoItemRepository.LineaCarrito;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Carritos de los usuarios como agregados en memoria. El carrito se carga de
+ * {@code carrito_items} en el primer acceso y a partir de ahí las lecturas no
+ * tocan la base de datos. Las escrituras se aplican en memoria y quedan
+ * pendientes; un job periódico las vuelca en batch (los cambios sucesivos sobre
+ * una misma línea se fusionan en una sola fila).
+ * <p>
+ * El volcado es síncrono antes del checkout ({@link #persistir(Long)}) y al
+ * detener la aplicación. Cada carrito se protege con su propio monitor, así que
+ * usuarios distintos no se bloquean entre sí.
+ * <p>
+ * Cada carrito lleva su total y su cantidad de unidades como agregados que se
+ * actualizan en cada cambio; el job de volcado los contrasta con las líneas.
+ */
+@Component
+@Slf4j
+public class CarritosEnMemoria {
+
+    private static final String BORRAR_CARRITO = "DELETE FROM carrito_items WHERE usuario_id = :usuarioId";
+    private static final String PRODUCTOS_DE_CARRITOS =
+            "SELECT usuario_id, producto_id FROM carrito_items WHERE usuario_id IN (:usuarioIds)";
+    private static final String BORRAR_CARRITOS = "DELETE FROM carrito_items WHERE usuario_id IN (:usuarioIds)";
+    private static final String BORRAR_ITEMS = "DELETE FROM carrito_items WHERE id IN (:ids)";
+    private static final String ACTUALIZAR_ITEM =
+            "UPDATE carrito_items SET cantidad = ?, subtotal = ? WHERE id = ?";
+    private static final String INSERTAR_ITEM =
+            "INSERT INTO carrito_items (usuario_id, producto_id, cantidad, precio_unitario, subtotal, fecha_agregado) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String IDS_INSERTADOS =
+            "SELECT id, producto_id FROM carrito_items WHERE usuario_id = :usuarioId AND producto_id IN (:productoIds)";
+
+    private final CarritoItemRepository carritoItemRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccionPropia;
+    private final long inactividadMs;
+    private final Map<Long, Carrito> carritos = new ConcurrentHashMap<>();
+
+    public CarritosEnMemoria(CarritoItemRepository carritoItemRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${carrito.memoria.inactividad-minutos:30}") long inactividadMinutos) {
+        this.carritoItemRepository = carritoItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // El volcado no debe sumarse a la transacción del llamador (por ejemplo la
+        // del pedido): si esta se revierte, lo ya escrito del carrito tiene que quedar
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.inactividadMs = inactividadMinutos * 60_000;
+    }
+
+    /**
+     * Ejecuta una lectura sobre el carrito del usuario.
+     */
+    public <T> T leer(Long usuarioId, Function<Carrito, T> lectura) {
+        return modificar(usuarioId, lectura);
+    }
+
+    /**
+     * Ejecuta una modificación sobre el carrito del usuario; los cambios quedan
+     * pendientes hasta el próximo volcado. Si la función lanza una excepción no
+     * debe haber modificado nada antes.
+     */
+    public <T> T modificar(Long usuarioId, Function<Carrito, T> operacion) {
+        while (true) {
+            Carrito carrito = obtener(usuarioId);
+            synchronized (carrito) {
+                // Un carrito descartado ya no está en el mapa: se reintenta con uno nuevo
+                if (!carrito.descartado) {
+                    carrito.ultimoAcceso = System.currentTimeMillis();
+                    return operacion.apply(carrito);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelca de inmediato los cambios pendientes del carrito del usuario.
+     *
+     * @return {@code false} si no se pudo; los cambios siguen pendientes
+     */
+    public boolean persistir(Long usuarioId) {
+        Carrito carrito = carritos.get(usuarioId);
+        if (carrito == null) {
+            return true;
+        }
+        synchronized (carrito) {
+            return carrito.descartado || volcar(carrito);
+        }
+    }
+
+    /**
+     * Olvida el carrito del usuario, con sus cambios pendientes, para que el
+     * próximo acceso lo recargue de la base de datos. Dentro de una transacción
+     * se repite al confirmarla, por si alguien lo recargó antes de ver el commit.
+     *
+     * @return los productos de las líneas que tenía el carrito en memoria,
+     * incluidas las que aún no se habían volcado
+     */
+    public Set<Long> descartar(Long usuarioId) {
+        Set<Long> productoIds = quitar(usuarioId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quitar(usuarioId);
+                }
+            });
+        }
+        return productoIds;
+    }
+
+    @Scheduled(fixedDelayString = "${carrito.escritura.intervalo-ms:2000}")
+    public void persistirPendientes() {
+        long limiteInactividad = System.currentTimeMillis() - inactividadMs;
+        int volcados = 0;
+        for (Carrito carrito : carritos.values()) {
+            synchronized (carrito) {
+                if (carrito.descartado) {
+                    continue;
+                }
+                if (carrito.hayPendientes()) {
+                    // Los totales se contrastan con las líneas fuera del camino de las peticiones
+                    if (!carrito.verificarTotales()) {
+                        log.warn("Totales del carrito del usuario {} corregidos", carrito.usuarioId);
+                    }
+                    if (volcar(carrito)) {
+                        volcados++;
+                    }
+                }
+                if (!carrito.hayPendientes() && carrito.ultimoAcceso < limiteInactividad) {
+                    carrito.descartado = true;
+                    carritos.remove(carrito.usuarioId, carrito);
+                }
+            }
+        }
+        if (volcados > 0) {
+            log.debug("Carritos volcados a la base de datos: {}", volcados);
+        }
+    }
+
+    @PreDestroy
+    public void persistirTodo() {
+        int pendientes = 0;
+        for (Carrito carrito : carritos.values()) {
+            synchronized (carrito) {
+                if (!carrito.descartado && carrito.hayPendientes() && !volcar(carrito)) {
+                    pendientes++;
+                }
+            }
+        }
+        if (pendientes > 0) {
+            log.warn("{} carritos no se pudieron volcar al detener la aplicación", pendientes);
+        }
+    }
+
+    /**
+     * Borra de la base de datos, con un único DELETE, los carritos de los
+     * usuarios indicados que no están cargados; los cargados están en uso y se
+     * saltan. Mientras dura el borrado cada uno ocupa su lugar en memoria como un
+     * carrito vacío que no se vuelca: quien lo abra en ese lapso ya ve el
+     * resultado de la limpieza y sus cambios se escriben al terminar.
+     *
+     * @return los productos que tenía cada carrito borrado
+     */
+    public Map<Long, List<Long>> borrarNoCargados(Collection<Long> usuarioIds) {
+        List<Carrito> enLimpieza = new ArrayList<>();
+        for (Long usuarioId : usuarioIds) {
+            Carrito vacio = new Carrito(usuarioId, List.of());
+            vacio.enLimpieza = true;
+            if (carritos.putIfAbsent(usuarioId, vacio) == null) {
+                enLimpieza.add(vacio);
+            }
+        }
+        if (enLimpieza.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = enLimpieza.stream().map(carrito -> carrito.usuarioId).toList();
+        Map<Long, List<Long>> productos = new HashMap<>();
+        boolean borrados = false;
+        try {
+            transaccionPropia.executeWithoutResult(estado -> {
+                jdbcTemplate.query(PRODUCTOS_DE_CARRITOS, Map.of("usuarioIds", ids), rs -> {
+                    productos.computeIfAbsent(rs.getLong("usuario_id"), id -> new ArrayList<>())
+                            .add(rs.getLong("producto_id"));
+                });
+                jdbcTemplate.update(BORRAR_CARRITOS, Map.of("usuarioIds", ids));
+            });
+            borrados = true;
+        } finally {
+            for (Carrito carrito : enLimpieza) {
+                synchronized (carrito) {
+                    carrito.enLimpieza = false;
+                    if (!carrito.hayPendientes()) {
+                        // Sin cambios se suelta: el próximo acceso lee lo que quedó en la base de datos
+                        carrito.descartado = true;
+                        carritos.remove(carrito.usuarioId, carrito);
+                    } else if (!borrados) {
+                        // El usuario ya trabaja sobre el carrito vacío: su volcado borra las filas viejas
+                        carrito.vaciado = true;
+                    }
+                }
+            }
+        }
+        return productos;
+    }
+
+    public int cargados() {
+        return carritos.size();
+    }
+
+    private Carrito obtener(Long usuarioId) {
+        Carrito carrito = carritos.get(usuarioId);
+        if (carrito != null) {
+            return carrito;
+        }
+        // La carga se hace fuera del mapa; si otro hilo ganó la carrera se usa el suyo
+        Carrito cargado = new Carrito(usuarioId, carritoItemRepository.findLineasByUsuarioId(usuarioId));
+        Carrito existente = carritos.putIfAbsent(usuarioId, cargado);
+        return existente != null ? existente : cargado;
+    }
+
+    private Set<Long> quitar(Long usuarioId) {
+        Carrito carrito = carritos.remove(usuarioId);
+        if (carrito == null) {
+            return Set.of();
+        }
+        synchronized (carrito) {
+            carrito.descartado = true;
+            return Set.copyOf(carrito.lineas.keySet());
+        }
+    }
+
+    /**
+     * Escribe los cambios pendientes del carrito (el llamador tiene su monitor).
+     * Si falla, los cambios se conservan para el próximo intento.
+     */
+    private boolean volcar(Carrito carrito) {
+        if (!carrito.hayPendientes()) {
+            return true;
+        }
+        if (carrito.enLimpieza) {
+            // Se escribe cuando termine el borrado de sus filas anteriores
+            return false;
+        }
+        try {
+            transaccionPropia.executeWithoutResult(estado -> escribir(carrito));
+        } catch (RuntimeException e) {
+            log.error("No se pudo volcar el carrito del usuario {}", carrito.usuarioId, e);
+            return false;
+        }
+        carrito.vaciado = false;
+        carrito.modificados.clear();
+        carrito.eliminados.clear();
+        return true;
+    }
+
+    private void escribir(Carrito carrito) {
+        if (carrito.vaciado) {
+            jdbcTemplate.update(BORRAR_CARRITO, Map.of("usuarioId", carrito.usuarioId));
+        }
+        if (!carrito.eliminados.isEmpty()) {
+            jdbcTemplate.update(BORRAR_ITEMS, Map.of("ids", carrito.eliminados));
+        }
+
+        List<Linea> actualizadas = new ArrayList<>();
+        List<Linea> nuevas = new ArrayList<>();
+        for (Long productoId : carrito.modificados) {
+            Linea linea = carrito.lineas.get(productoId);
+            if (linea != null) {
+                (linea.itemId != null ? actualizadas : nuevas).add(linea);
+            }
+        }
+
+        if (!actualizadas.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(ACTUALIZAR_ITEM, actualizadas, actualizadas.size(), (ps, linea) -> {
+                ps.setInt(1, linea.cantidad);
+                ps.setBigDecimal(2, linea.subtotal());
+                ps.setLong(3, linea.itemId);
+            });
+        }
+        if (!nuevas.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERTAR_ITEM, nuevas, nuevas.size(), (ps, linea) -> {
+                ps.setLong(1, carrito.usuarioId);
+                ps.setLong(2, linea.productoId);
+                ps.setInt(3, linea.cantidad);
+                ps.setBigDecimal(4, linea.precioUnitario);
+                ps.setBigDecimal(5, linea.subtotal());
+                ps.setTimestamp(6, Timestamp.valueOf(linea.fechaAgregado));
+            });
+            // Una consulta por carrito para conocer los ids generados
+            Map<Long, Long> ids = new HashMap<>();
+            jdbcTemplate.query(IDS_INSERTADOS,
+                    Map.of("usuarioId", carrito.usuarioId,
+                            "productoIds", nuevas.stream().map(linea -> linea.productoId).toList()),
+                    rs -> {
+                        ids.put(rs.getLong("producto_id"), rs.getLong("id"));
+                    });
+            nuevas.forEach(linea -> linea.itemId = ids.get(linea.productoId));
+        }
+    }
+
+    /**
+     * Carrito de un usuario. Solo se usa con su monitor tomado, dentro de
+     * {@link #leer} o {@link #modificar}.
+     */
+    public static final class Carrito {
+
+        private final Long usuarioId;
+        private final Map<Long, Linea> lineas = new LinkedHashMap<>();
+        // Productos cuya línea se creó o cambió, e ids de filas a borrar, desde el último volcado
+        private final Set<Long> modificados = new HashSet<>();
+        private final Set<Long> eliminados = new HashSet<>();
+        // Agregados que se mantienen con cada cambio para no recorrer las líneas
+        private BigDecimal total = BigDecimal.ZERO;
+        private int unidades;
+        private boolean vaciado;
+        private boolean descartado;
+        // Ocupa el lugar de un carrito cuyas filas se están borrando
+        private boolean enLimpieza;
+        private long ultimoAcceso = System.currentTimeMillis();
+
+        private Carrito(Long usuarioId, List<LineaCarrito> persistidas) {
+            this.usuarioId = usuarioId;
+            for (LineaCarrito fila : persistidas) {
+                Linea linea = new Linea(fila.getId(), fila.getProductoId(), fila.getCantidad(),
+                        fila.getPrecioUnitario(), fila.getFechaAgregado());
+                lineas.put(linea.productoId, linea);
+                total = total.add(linea.subtotal());
+                unidades += linea.cantidad;
+            }
+        }
+
+        public BigDecimal total() {
+            return total;
+        }
+
+        public int unidades() {
+            return unidades;
+        }
+
+        public int cantidadLineas() {
+            return lineas.size();
+        }
+
+        public Collection<Linea> lineas() {
+            return lineas.values();
+        }
+
+        public Linea linea(Long productoId) {
+            return lineas.get(productoId);
+        }
+
+        public Linea agregar(Long productoId, int cantidad, BigDecimal precioUnitario) {
+            Linea linea = new Linea(null, productoId, cantidad, precioUnitario, LocalDateTime.now());
+            lineas.put(productoId, linea);
+            modificados.add(productoId);
+            total = total.add(linea.subtotal());
+            unidades += cantidad;
+            return linea;
+        }
+
+        public void cambiarCantidad(Linea linea, int cantidad) {
+            int diferencia = cantidad - linea.cantidad;
+            total = total.add(linea.precioUnitario.multiply(BigDecimal.valueOf(diferencia)));
+            unidades += diferencia;
+            linea.cantidad = cantidad;
+            modificados.add(linea.productoId);
+        }
+
+        public void quitar(Linea linea) {
+            lineas.remove(linea.productoId);
+            modificados.remove(linea.productoId);
+            total = total.subtract(linea.subtotal());
+            unidades -= linea.cantidad;
+            if (linea.itemId != null) {
+                eliminados.add(linea.itemId);
+            }
+        }
+
+        public void vaciar() {
+            lineas.clear();
+            modificados.clear();
+            eliminados.clear();
+            total = BigDecimal.ZERO;
+            unidades = 0;
+            vaciado = true;
+        }
+
+        /**
+         * Recalcula los agregados desde las líneas y los corrige si no coinciden.
+         * Devuelve {@code false} si hubo que corregirlos.
+         */
+        boolean verificarTotales() {
+            BigDecimal totalLineas = BigDecimal.ZERO;
+            int unidadesLineas = 0;
+            for (Linea linea : lineas.values()) {
+                totalLineas = totalLineas.add(linea.subtotal());
+                unidadesLineas += linea.cantidad;
+            }
+            boolean correctos = totalLineas.compareTo(total) == 0 && unidadesLineas == unidades;
+            total = totalLineas;
+            unidades = unidadesLineas;
+            return correctos;
+        }
+
+        boolean hayPendientes() {
+            return vaciado || !modificados.isEmpty() || !eliminados.isEmpty();
+        }
+    }
+
+    public static final class Linea {
+
+        private Long itemId;
+        private final Long productoId;
+        private int cantidad;
+        private final BigDecimal precioUnitario;
+        private final LocalDateTime fechaAgregado;
+
+        private Linea(Long itemId, Long productoId, int cantidad, BigDecimal precioUnitario,
+                      LocalDateTime fechaAgregado) {
+            this.itemId = itemId;
+            this.productoId = productoId;
+            this.cantidad = cantidad;
+            this.precioUnitario = precioUnitario;
+            this.fechaAgregado = fechaAgregado;
+        }
+
+        public Long productoId() {
+            return productoId;
+        }
+
+        public int cantidad() {
+            return cantidad;
+        }
+
+        public BigDecimal precioUnitario() {
+            return precioUnitario;
+        }
+
+        public BigDecimal subtotal() {
+            return precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+        }
+
+        public LocalDateTime fechaAgregado() {
+            return fechaAgregado;
+        }
+    }
+}
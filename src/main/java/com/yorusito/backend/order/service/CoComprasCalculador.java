@@ -0,0 +1,87 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.repository.OrderRepository;
+import com.yorusito.backend.order.repository.PedidoRepository;
+import com.yorusito.backend.product.ranking.ProductosRelacionados;
+import com.yorusito.backend.shared.enums.EstadoPedido;
+import com.yorusito.backend.shared.enums.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Job periódico que agrupa los ítems de pedidos y órdenes en cestas y actualiza
+ * los productos relacionados por co-compra. Cada ejecución lee solo los pedidos
+ * y órdenes con id mayor al último procesado y los suma a la matriz existente.
+ * <p>
+ * Cada {@code catalogo.relacionados.reconstruccion-cada} ejecuciones (y en la
+ * primera) se recorre el historial completo: así salen de la matriz los pedidos
+ * que se cancelaron o devolvieron después de contarse y entran los que se
+ * confirmaron con un id menor al ya procesado.
+ */
+@Component
+public class CoComprasCalculador {
+
+    private final PedidoRepository pedidoRepository;
+    private final OrderRepository orderRepository;
+    private final ProductosRelacionados productosRelacionados;
+    private final int reconstruccionCada;
+    private long ultimoPedido;
+    private long ultimaOrden;
+    private int ejecuciones;
+
+    public CoComprasCalculador(PedidoRepository pedidoRepository,
+                               OrderRepository orderRepository,
+                               ProductosRelacionados productosRelacionados,
+                               @Value("${catalogo.relacionados.reconstruccion-cada:24}") int reconstruccionCada) {
+        this.pedidoRepository = pedidoRepository;
+        this.orderRepository = orderRepository;
+        this.productosRelacionados = productosRelacionados;
+        this.reconstruccionCada = Math.max(1, reconstruccionCada);
+    }
+
+    @Scheduled(initialDelayString = "${catalogo.relacionados.retraso-inicial-ms:5000}",
+               fixedDelayString = "${catalogo.relacionados.intervalo-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void recalcular() {
+        boolean completa = ejecuciones++ % reconstruccionCada == 0;
+        long desdePedido = completa ? 0 : ultimoPedido;
+        long desdeOrden = completa ? 0 : ultimaOrden;
+
+        Map<Long, Set<Long>> pedidos = agrupar(pedidoRepository.findProductosEnCestas(desdePedido, EstadoPedido.CANCELADO),
+                PedidoRepository.ProductoEnCesta::getCestaId, PedidoRepository.ProductoEnCesta::getProductoId);
+        Map<Long, Set<Long>> ordenes = agrupar(orderRepository.findProductosEnOrdenes(desdeOrden,
+                        List.of(OrderStatus.CANCELADO, OrderStatus.DEVUELTO)),
+                OrderRepository.ProductoEnOrden::getOrdenId, OrderRepository.ProductoEnOrden::getProductoId);
+        ultimoPedido = pedidos.keySet().stream().mapToLong(Long::longValue).max().orElse(desdePedido);
+        ultimaOrden = ordenes.keySet().stream().mapToLong(Long::longValue).max().orElse(desdeOrden);
+
+        List<Set<Long>> cestas = new ArrayList<>(pedidos.size() + ordenes.size());
+        cestas.addAll(pedidos.values());
+        cestas.addAll(ordenes.values());
+        if (completa) {
+            productosRelacionados.recalcular(cestas);
+        } else if (!cestas.isEmpty()) {
+            productosRelacionados.agregar(cestas);
+        }
+    }
+
+    private static <T> Map<Long, Set<Long>> agrupar(Collection<T> filas, Function<T, Long> cesta,
+                                                    Function<T, Long> producto) {
+        Map<Long, Set<Long>> cestas = new HashMap<>();
+        for (T fila : filas) {
+            cestas.computeIfAbsent(cesta.apply(fila), id -> new HashSet<>()).add(producto.apply(fila));
+        }
+        return cestas;
+    }
+}
@@ -0,0 +1,99 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.dto.LimpiezaCarritosResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Borra los carritos abandonados: los de usuarios cuyo último producto se
+ * agregó hace más de {@code carrito.abandonados.dias}. Los carritos se recorren
+ * por id de usuario en lotes acotados y cada lote se borra con un único DELETE
+ * en su propia transacción, para no retener bloqueos sobre toda la tabla.
+ * <p>
+ * Los carritos cargados en memoria están en uso y se saltan; el borrado lo hace
+ * {@link CarritosEnMemoria#borrarNoCargados}, que impide que se carguen a la vez.
+ * Las reservas de stock de los carritos borrados se liberan.
+ */
+@Component
+@Slf4j
+public class LimpiezaCarritos {
+
+    private static final String CARRITOS_INACTIVOS =
+            "SELECT usuario_id FROM carrito_items WHERE usuario_id > :desde " +
+            "GROUP BY usuario_id HAVING MAX(fecha_agregado) < :limite " +
+            "ORDER BY usuario_id LIMIT :lote";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CarritosEnMemoria carritos;
+    private final ReservasStock reservas;
+    private final int diasInactividad;
+    private final int tamanioLote;
+
+    public LimpiezaCarritos(NamedParameterJdbcTemplate jdbcTemplate,
+                            CarritosEnMemoria carritos,
+                            ReservasStock reservas,
+                            @Value("${carrito.abandonados.dias:30}") int diasInactividad,
+                            @Value("${carrito.abandonados.tamanio-lote:500}") int tamanioLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.carritos = carritos;
+        this.reservas = reservas;
+        this.diasInactividad = diasInactividad;
+        this.tamanioLote = tamanioLote;
+    }
+
+    @Scheduled(fixedDelayString = "${carrito.abandonados.intervalo-ms:3600000}")
+    public void limpiarProgramado() {
+        limpiar();
+    }
+
+    public LimpiezaCarritosResponse limpiar() {
+        long inicio = System.nanoTime();
+        LocalDateTime limite = LocalDateTime.now().minusDays(diasInactividad);
+
+        int carritosEliminados = 0;
+        int filas = 0;
+        int lotes = 0;
+        long desde = 0;
+        while (true) {
+            List<Long> usuarioIds = jdbcTemplate.queryForList(CARRITOS_INACTIVOS,
+                    Map.of("desde", desde, "limite", Timestamp.valueOf(limite), "lote", tamanioLote),
+                    Long.class);
+            if (usuarioIds.isEmpty()) {
+                break;
+            }
+            desde = usuarioIds.get(usuarioIds.size() - 1);
+
+            Map<Long, List<Long>> borrados = carritos.borrarNoCargados(usuarioIds);
+            if (!borrados.isEmpty()) {
+                borrados.forEach((usuarioId, productoIds) -> reservas.liberar(productoIds, usuarioId));
+                filas += borrados.values().stream().mapToInt(List::size).sum();
+                carritosEliminados += borrados.size();
+                lotes++;
+            }
+            if (usuarioIds.size() < tamanioLote) {
+                break;
+            }
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        if (carritosEliminados > 0) {
+            log.info("Carritos abandonados desde {}: {} carritos, {} filas eliminadas en {} lotes, {} ms",
+                    limite, carritosEliminados, filas, lotes, duracionMs);
+        }
+        return LimpiezaCarritosResponse.builder()
+                .inactivosDesde(limite)
+                .carritos(carritosEliminados)
+                .filasEliminadas(filas)
+                .lotes(lotes)
+                .duracionMs(duracionMs)
+                .build();
+    }
+}
@@ -9,9 +9,12 @@ import com.yorusito.backend.order.repository.PedidoRepository;
 import com.yorusito.backend.product.dto.CategoriaResponse;
 import com.yorusito.backend.product.dto.ProductoResponse;
 import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.event.VentasRegistradasEvent;
 import com.yorusito.backend.product.repository.ProductoRepository;
 import com.yorusito.backend.shared.enums.EstadoPedido;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,7 +33,9 @@ public class PedidoService {
 
     private final PedidoRepository pedidoRepository;
     private final CarritoService carritoService;
+    private final ReservasStock reservasStock;
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PedidoResponse crearPedido(PedidoRequest request) {
         Usuario usuario = getUsuarioAutenticado();
@@ -41,10 +47,10 @@ public class PedidoService {
             throw new RuntimeException("El carrito está vacío");
         }
 
-        // Verificar stock disponible
+        // Verificar stock disponible, sin contar lo que tienen reservado otros carritos
         for (CarritoItem item : carritoItems) {
             Producto producto = item.getProducto();
-            if (producto.getStock() < item.getCantidad()) {
+            if (producto.getStock() - reservasStock.reservadasPorOtros(producto.getId(), usuario.getId()) < item.getCantidad()) {
                 throw new RuntimeException("Stock insuficiente para el producto: " + producto.getNombre());
             }
         }
@@ -85,9 +91,15 @@ public class PedidoService {
             producto.setStock(producto.getStock() - item.getCantidad());
             productoRepository.save(producto);
         }
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProductos(carritoItems.stream()
+                .map(item -> item.getProducto().getId())
+                .collect(Collectors.toSet())));
+        Map<Long, Integer> vendidos = pedidoItems.stream()
+                .collect(Collectors.toMap(item -> item.getProducto().getId(), PedidoItem::getCantidad, Integer::sum));
+        eventPublisher.publishEvent(new VentasRegistradasEvent(vendidos, pedidoGuardado.getFechaPedido()));
 
         // Vaciar carrito
-        carritoService.vaciarCarrito();
+        carritoService.vaciarTrasPedido(usuario.getId(), vendidos.keySet());
 
         return convertirAPedidoResponse(pedidoGuardado);
     }
@@ -128,9 +140,21 @@ public class PedidoService {
         Pedido pedido = pedidoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido no encontrado"));
 
+        EstadoPedido estadoAnterior = pedido.getEstado();
         pedido.setEstado(nuevoEstado);
         pedido = pedidoRepository.save(pedido);
 
+        // Las ventas de un pedido cancelado dejan de contar para la popularidad (y vuelven si se reactiva)
+        boolean cancelado = nuevoEstado == EstadoPedido.CANCELADO && estadoAnterior != EstadoPedido.CANCELADO;
+        boolean reactivado = estadoAnterior == EstadoPedido.CANCELADO && nuevoEstado != EstadoPedido.CANCELADO;
+        if (cancelado || reactivado) {
+            int signo = cancelado ? -1 : 1;
+            Map<Long, Integer> cantidades = pedido.getItems().stream()
+                    .collect(Collectors.toMap(item -> item.getProducto().getId(),
+                            item -> signo * item.getCantidad(), Integer::sum));
+            eventPublisher.publishEvent(new VentasRegistradasEvent(cantidades, pedido.getFechaPedido()));
+        }
+
         return convertirAPedidoResponse(pedido);
     }
 
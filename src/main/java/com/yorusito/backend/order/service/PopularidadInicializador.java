@@ -0,0 +1,51 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.repository.PedidoRepository;
+import com.yorusito.backend.product.ranking.PopularidadProductos;
+import com.yorusito.backend.shared.enums.EstadoPedido;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Carga en el ranking de popularidad las ventas de los últimos días al arrancar;
+ * a partir de ahí cada pedido nuevo lo actualiza por evento.
+ */
+@Component
+@Slf4j
+public class PopularidadInicializador {
+
+    private final PedidoRepository pedidoRepository;
+    private final PopularidadProductos popularidad;
+    private final int ventanaDias;
+
+    public PopularidadInicializador(PedidoRepository pedidoRepository,
+                                    PopularidadProductos popularidad,
+                                    @Value("${catalogo.popularidad.ventana-dias:30}") int ventanaDias) {
+        this.pedidoRepository = pedidoRepository;
+        this.popularidad = popularidad;
+        this.ventanaDias = ventanaDias;
+    }
+
+    // Antes de construir los índices del catálogo, que leen la popularidad
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void cargarVentasRecientes() {
+        List<PedidoRepository.VentaProducto> ventas = pedidoRepository.findVentasDesde(
+                LocalDateTime.now().minusDays(ventanaDias), EstadoPedido.CANCELADO);
+
+        popularidad.limpiar();
+        ventas.forEach(venta -> popularidad.registrarVenta(
+                venta.getProductoId(), venta.getCantidad(), venta.getFechaPedido()));
+        log.info("Ranking de popularidad cargado: {} ventas, {} productos", ventas.size(), popularidad.tamanio());
+    }
+}
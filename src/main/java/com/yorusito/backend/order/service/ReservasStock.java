@@ -0,0 +1,309 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.entity.ReservaStock;
+import com.yorusito.backend.order.repository.ReservaStockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reservas de stock de los carritos. Cada usuario reserva, por producto, la
+ * cantidad que tiene en el carrito durante un tiempo limitado; el stock
+ * disponible para los demás es {@code stock - reservas vigentes}, y se calcula
+ * sin bloquear la fila de {@code productos}.
+ * <p>
+ * El registro vive en memoria, repartido en franjas por producto con un monitor
+ * cada una, de modo que reservas de productos distintos no compiten entre sí.
+ * Los cambios se copian en {@code reservas_stock} en segundo plano (y al detener
+ * la aplicación) para recuperarlos tras un reinicio; las reservas vencidas se
+ * barren periódicamente.
+ */
+@Component
+@Slf4j
+public class ReservasStock {
+
+    private static final int FRANJAS = 64;
+    private static final String BORRAR_RESERVA =
+            "DELETE FROM reservas_stock WHERE usuario_id = ? AND producto_id = ?";
+    private static final String INSERTAR_RESERVA =
+            "INSERT INTO reservas_stock (usuario_id, producto_id, cantidad, expira_en) VALUES (?, ?, ?, ?)";
+
+    private final ReservaStockRepository reservaStockRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final long duracionMs;
+    private final Franja[] franjas = new Franja[FRANJAS];
+    // Reservas modificadas desde el último volcado
+    private final Set<Clave> pendientes = ConcurrentHashMap.newKeySet();
+
+    public ReservasStock(ReservaStockRepository reservaStockRepository,
+                         NamedParameterJdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         Clock clock,
+                         @Value("${carrito.reservas.ttl-minutos:15}") long ttlMinutos) {
+        this.reservaStockRepository = reservaStockRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.duracionMs = ttlMinutos * 60_000;
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Franja();
+        }
+    }
+
+    /**
+     * Recupera las reservas vigentes que quedaron en la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperar() {
+        List<ReservaStock> vigentes = transactionTemplate.execute(estado -> {
+            LocalDateTime ahora = LocalDateTime.now(clock);
+            reservaStockRepository.deleteVencidas(ahora);
+            return reservaStockRepository.findByExpiraEnAfter(ahora);
+        });
+        for (ReservaStock reserva : vigentes) {
+            Franja franja = franja(reserva.getProductoId());
+            synchronized (franja) {
+                franja.porProducto.computeIfAbsent(reserva.getProductoId(), id -> new HashMap<>())
+                        .put(reserva.getUsuarioId(), new Reserva(reserva.getCantidad(), aMillis(reserva.getExpiraEn())));
+            }
+        }
+        log.info("Reservas de stock recuperadas: {}", vigentes.size());
+    }
+
+    /**
+     * Fija en {@code cantidad} la reserva del usuario sobre el producto y renueva
+     * su vencimiento, si el stock no reservado por otros usuarios alcanza.
+     *
+     * @return {@code false} si no alcanza; la reserva anterior queda como estaba
+     */
+    public boolean reservar(Long productoId, Long usuarioId, int cantidad, int stock) {
+        long ahora = clock.millis();
+        Franja franja = franja(productoId);
+        synchronized (franja) {
+            Map<Long, Reserva> reservas = franja.porProducto.computeIfAbsent(productoId, id -> new HashMap<>());
+            if (stock - reservadasPorOtros(reservas, usuarioId, ahora) < cantidad) {
+                if (reservas.isEmpty()) {
+                    franja.porProducto.remove(productoId);
+                }
+                return false;
+            }
+            reservas.put(usuarioId, new Reserva(cantidad, ahora + duracionMs));
+        }
+        pendientes.add(new Clave(productoId, usuarioId));
+        return true;
+    }
+
+    public void liberar(Long productoId, Long usuarioId) {
+        Franja franja = franja(productoId);
+        synchronized (franja) {
+            Map<Long, Reserva> reservas = franja.porProducto.get(productoId);
+            if (reservas == null || reservas.remove(usuarioId) == null) {
+                return;
+            }
+            if (reservas.isEmpty()) {
+                franja.porProducto.remove(productoId);
+            }
+        }
+        pendientes.add(new Clave(productoId, usuarioId));
+    }
+
+    /**
+     * Deja la reserva del usuario en {@code cantidad} sin validar stock; sirve
+     * para restaurar una reserva anterior si una operación no pudo completarse.
+     */
+    public void restaurar(Long productoId, Long usuarioId, int cantidad) {
+        if (cantidad == 0) {
+            liberar(productoId, usuarioId);
+        } else {
+            reservar(productoId, usuarioId, cantidad, Integer.MAX_VALUE);
+        }
+    }
+
+    public void liberar(Collection<Long> productoIds, Long usuarioId) {
+        productoIds.forEach(productoId -> liberar(productoId, usuarioId));
+    }
+
+    /**
+     * Libera las reservas cuando la transacción en curso se confirma (o de
+     * inmediato si no hay transacción), por ejemplo al convertirlas en un pedido.
+     */
+    public void liberarAlConfirmar(Collection<Long> productoIds, Long usuarioId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            liberar(productoIds, usuarioId);
+            return;
+        }
+        List<Long> ids = List.copyOf(productoIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                liberar(ids, usuarioId);
+            }
+        });
+    }
+
+    /**
+     * Cantidad vigente reservada por el usuario sobre el producto.
+     */
+    public int reservada(Long productoId, Long usuarioId) {
+        long ahora = clock.millis();
+        Franja franja = franja(productoId);
+        synchronized (franja) {
+            Map<Long, Reserva> reservas = franja.porProducto.get(productoId);
+            Reserva reserva = reservas != null ? reservas.get(usuarioId) : null;
+            return reserva != null && reserva.vigente(ahora) ? reserva.cantidad() : 0;
+        }
+    }
+
+    public int reservadas(Long productoId) {
+        return reservadasPorOtros(productoId, null);
+    }
+
+    /**
+     * Unidades del producto reservadas por usuarios distintos de {@code usuarioId}.
+     */
+    public int reservadasPorOtros(Long productoId, Long usuarioId) {
+        long ahora = clock.millis();
+        Franja franja = franja(productoId);
+        synchronized (franja) {
+            Map<Long, Reserva> reservas = franja.porProducto.get(productoId);
+            return reservas != null ? reservadasPorOtros(reservas, usuarioId, ahora) : 0;
+        }
+    }
+
+    /**
+     * Quita de memoria las reservas vencidas; su borrado en la base de datos va
+     * con el próximo volcado.
+     */
+    @Scheduled(fixedDelayString = "${carrito.reservas.barrido-ms:30000}")
+    public void barrerVencidas() {
+        long ahora = clock.millis();
+        int vencidas = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                Iterator<Map.Entry<Long, Map<Long, Reserva>>> productos = franja.porProducto.entrySet().iterator();
+                while (productos.hasNext()) {
+                    Map.Entry<Long, Map<Long, Reserva>> producto = productos.next();
+                    Iterator<Map.Entry<Long, Reserva>> reservas = producto.getValue().entrySet().iterator();
+                    while (reservas.hasNext()) {
+                        Map.Entry<Long, Reserva> reserva = reservas.next();
+                        if (!reserva.getValue().vigente(ahora)) {
+                            reservas.remove();
+                            pendientes.add(new Clave(producto.getKey(), reserva.getKey()));
+                            vencidas++;
+                        }
+                    }
+                    if (producto.getValue().isEmpty()) {
+                        productos.remove();
+                    }
+                }
+            }
+        }
+        if (vencidas > 0) {
+            log.debug("Reservas de stock vencidas: {}", vencidas);
+        }
+    }
+
+    /**
+     * Copia en la base de datos el estado actual de las reservas modificadas:
+     * se borra la fila de cada una y se vuelve a insertar si sigue vigente.
+     */
+    @Scheduled(fixedDelayString = "${carrito.escritura.intervalo-ms:2000}")
+    public void persistirPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Clave> claves = new ArrayList<>(pendientes);
+        claves.forEach(pendientes::remove);
+
+        long ahora = clock.millis();
+        List<Object[]> vigentes = new ArrayList<>();
+        for (Clave clave : claves) {
+            Franja franja = franja(clave.productoId());
+            synchronized (franja) {
+                Map<Long, Reserva> reservas = franja.porProducto.get(clave.productoId());
+                Reserva reserva = reservas != null ? reservas.get(clave.usuarioId()) : null;
+                if (reserva != null && reserva.vigente(ahora)) {
+                    vigentes.add(new Object[]{clave.usuarioId(), clave.productoId(), reserva.cantidad(),
+                            Timestamp.valueOf(aFecha(reserva.expiraEn()))});
+                }
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                jdbcTemplate.getJdbcTemplate().batchUpdate(BORRAR_RESERVA, claves.stream()
+                        .map(clave -> new Object[]{clave.usuarioId(), clave.productoId()})
+                        .toList());
+                jdbcTemplate.getJdbcTemplate().batchUpdate(INSERTAR_RESERVA, vigentes);
+            });
+        } catch (RuntimeException e) {
+            // Se reintentan en el próximo volcado
+            pendientes.addAll(claves);
+            log.error("No se pudieron volcar {} reservas de stock", claves.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void persistirTodo() {
+        persistirPendientes();
+    }
+
+    private Franja franja(Long productoId) {
+        return franjas[(Long.hashCode(productoId) & 0x7fffffff) % FRANJAS];
+    }
+
+    private static int reservadasPorOtros(Map<Long, Reserva> reservas, Long usuarioId, long ahora) {
+        int total = 0;
+        for (Map.Entry<Long, Reserva> entrada : reservas.entrySet()) {
+            if (!entrada.getKey().equals(usuarioId) && entrada.getValue().vigente(ahora)) {
+                total += entrada.getValue().cantidad();
+            }
+        }
+        return total;
+    }
+
+    private long aMillis(LocalDateTime fecha) {
+        return fecha.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime aFecha(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+    private static final class Franja {
+        // producto -> usuario -> reserva
+        private final Map<Long, Map<Long, Reserva>> porProducto = new HashMap<>();
+    }
+
+    private record Reserva(int cantidad, long expiraEn) {
+        boolean vigente(long ahora) {
+            return expiraEn > ahora;
+        }
+    }
+
+    private record Clave(Long productoId, Long usuarioId) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.yorusito.backend.product.cache;
+
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU acotada cuyas entradas quedan asociadas a la versión del catálogo
+ * con la que fueron calculadas. Una entrada de una versión anterior se trata
+ * como fallo, y un valor calculado mientras la versión cambió no se almacena.
+ */
+public class CacheVersionada<K, V> {
+
+    private final String nombre;
+    private final int capacidadMaxima;
+    private final LongSupplier versionActual;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public CacheVersionada(String nombre, int capacidadMaxima, LongSupplier versionActual) {
+        this.nombre = nombre;
+        this.capacidadMaxima = capacidadMaxima;
+        this.versionActual = versionActual;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheVersionada.this.capacidadMaxima) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V obtener(K clave, Supplier<V> cargador) {
+        long version = versionActual.getAsLong();
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && entrada.version() == version) {
+                aciertos.increment();
+                return entrada.valor();
+            }
+        }
+
+        fallos.increment();
+        V valor = cargador.get();
+
+        synchronized (this) {
+            // Si el catálogo cambió mientras se cargaba, el valor puede estar desactualizado
+            if (versionActual.getAsLong() == version) {
+                entradas.put(clave, new Entrada<>(valor, version));
+            }
+        }
+        return valor;
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public CacheEstadisticasResponse estadisticas() {
+        long totalAciertos = aciertos.sum();
+        long totalFallos = fallos.sum();
+        long totalConsultas = totalAciertos + totalFallos;
+
+        return CacheEstadisticasResponse.builder()
+                .nombre(nombre)
+                .version(versionActual.getAsLong())
+                .entradas(tamanio())
+                .capacidadMaxima(capacidadMaxima)
+                .aciertos(totalAciertos)
+                .fallos(totalFallos)
+                .desalojos(desalojos.sum())
+                .tasaAciertos(totalConsultas > 0 ? (double) totalAciertos / totalConsultas : 0.0)
+                .build();
+    }
+
+    private record Entrada<V>(V valor, long version) {
+    }
+}
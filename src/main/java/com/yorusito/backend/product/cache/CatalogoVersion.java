@@ -0,0 +1,31 @@
+package com.yorusito.backend.product.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versión del catálogo. Cada escritura sobre productos, categorías
+ * o colecciones lo incrementa, de modo que cualquier dato derivado del catálogo
+ * puede usar la versión como parte de su clave.
+ */
+@Component
+public class CatalogoVersion {
+
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile Instant ultimaModificacion = Instant.now();
+
+    public long actual() {
+        return version.get();
+    }
+
+    public Instant getUltimaModificacion() {
+        return ultimaModificacion;
+    }
+
+    public long incrementar() {
+        ultimaModificacion = Instant.now();
+        return version.incrementAndGet();
+    }
+}
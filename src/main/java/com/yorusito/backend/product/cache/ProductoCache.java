@@ -0,0 +1,64 @@
+package com.yorusito.backend.product.cache;
+
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las respuestas de lectura del catálogo de productos.
+ * Se invalida completa en cada escritura incrementando la versión del catálogo.
+ */
+@Component
+@Slf4j
+public class ProductoCache {
+
+    private final CatalogoVersion catalogoVersion;
+    private final CacheVersionada<String, Object> cache;
+
+    public ProductoCache(CatalogoVersion catalogoVersion,
+                         @Value("${catalogo.cache.max-entradas:2000}") int maxEntradas) {
+        this.catalogoVersion = catalogoVersion;
+        this.cache = new CacheVersionada<>("productos", maxEntradas, catalogoVersion::actual);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String clave, Supplier<T> cargador) {
+        return (T) cache.obtener(clave, (Supplier<Object>) cargador);
+    }
+
+    @EventListener
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        invalidar();
+    }
+
+    public void invalidar() {
+        invalidarAhora();
+        // Dentro de una transacción se vuelve a invalidar tras el commit, para que una lectura
+        // concurrente no deje en caché datos previos al commit con la versión nueva
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidarAhora();
+                }
+            });
+        }
+    }
+
+    private void invalidarAhora() {
+        long version = catalogoVersion.incrementar();
+        cache.limpiar();
+        log.debug("Caché de productos invalidada, versión del catálogo: {}", version);
+    }
+
+    public CacheEstadisticasResponse estadisticas() {
+        return cache.estadisticas();
+    }
+}
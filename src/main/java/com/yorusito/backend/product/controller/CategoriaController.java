@@ -2,17 +2,27 @@ package com.yorusito.backend.product.controller;
 
 import com.yorusito.backend.product.dto.CategoriaRequest;
 import com.yorusito.backend.product.dto.CategoriaResponse;
+import com.yorusito.backend.product.dto.NavegacionResponse;
 import com.yorusito.backend.product.service.CategoriaService;
+import com.yorusito.backend.product.web.CatalogoCondicional;
+import com.yorusito.backend.product.web.RespuestasSerializadas;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -22,14 +32,26 @@ import java.util.List;
 public class CategoriaController {
 
     private final CategoriaService categoriaService;
+    private final RespuestasSerializadas respuestasSerializadas;
 
     @GetMapping
+    @CatalogoCondicional
     @Operation(summary = "Obtener todas las categorías", description = "Lista todas las categorías disponibles")
     public ResponseEntity<List<CategoriaResponse>> obtenerTodas() {
         return ResponseEntity.ok(categoriaService.obtenerTodas());
     }
 
+    @GetMapping(value = "/navegacion", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CatalogoCondicional
+    @Operation(summary = "Navegación de la tienda", description = "Categorías con sus productos activos y en stock, y colecciones destacadas, en una sola respuesta ya serializada")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = NavegacionResponse.class)))
+    public void obtenerNavegacion(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        respuestasSerializadas.escribir(respuestasSerializadas.listado("navegacion", categoriaService::obtenerNavegacion),
+                request, response);
+    }
+
     @GetMapping("/{id}")
+    @CatalogoCondicional
     @Operation(summary = "Obtener categoría por ID", description = "Obtiene una categoría específica por su ID")
     public ResponseEntity<CategoriaResponse> obtenerPorId(@PathVariable Long id) {
         return ResponseEntity.ok(categoriaService.obtenerPorId(id));
@@ -3,6 +3,7 @@ package com.yorusito.backend.product.controller;
 import com.yorusito.backend.product.dto.ColeccionRequest;
 import com.yorusito.backend.product.dto.ColeccionResponse;
 import com.yorusito.backend.product.service.ColeccionService;
+import com.yorusito.backend.product.web.CatalogoCondicional;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,6 +31,7 @@ public class ColeccionController {
     
     // Endpoints públicos para colecciones
     @GetMapping("/colecciones")
+    @CatalogoCondicional
     @Operation(summary = "Listar colecciones activas", description = "Obtiene todas las colecciones activas")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Colecciones obtenidas exitosamente")
@@ -40,6 +42,7 @@ public class ColeccionController {
     }
     
     @GetMapping("/colecciones/destacadas")
+    @CatalogoCondicional
     @Operation(summary = "Listar colecciones destacadas", description = "Obtiene las colecciones marcadas como destacadas")
     public ResponseEntity<List<ColeccionResponse>> listarColeccionesDestacadas() {
         List<ColeccionResponse> colecciones = coleccionService.listarColeccionesDestacadas();
@@ -47,6 +50,7 @@ public class ColeccionController {
     }
     
     @GetMapping("/colecciones/{id}")
+    @CatalogoCondicional
     @Operation(summary = "Obtener colección por ID", description = "Obtiene una colección específica por su ID")
     public ResponseEntity<ColeccionResponse> obtenerColeccion(
             @Parameter(description = "ID de la colección") @PathVariable Long id) {
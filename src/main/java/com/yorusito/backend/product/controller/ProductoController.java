@@ -1,25 +1,56 @@
 package com.yorusito.backend.product.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.yorusito.backend.product.dto.ActualizacionMasivaRequest;
+import com.yorusito.backend.product.dto.ActualizacionMasivaResponse;
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+import com.yorusito.backend.product.dto.FacetasResponse;
+import com.yorusito.backend.product.dto.ImportacionResultadoResponse;
+import com.yorusito.backend.product.dto.PaginaCursorResponse;
 import com.yorusito.backend.product.dto.ProductoRequest;
 import com.yorusito.backend.product.dto.ProductoResponse;
+import com.yorusito.backend.product.dto.ProductoResumenResponse;
+import com.yorusito.backend.product.dto.SugerenciaResponse;
+import com.yorusito.backend.product.search.IndiceAutocompletado;
+import com.yorusito.backend.product.service.ActualizacionMasivaService;
+import com.yorusito.backend.product.service.ImportacionProductosService;
+import com.yorusito.backend.product.service.ImportacionProductosService.FormatoImportacion;
+import com.yorusito.backend.product.service.ProductoResumenService;
 import com.yorusito.backend.product.service.ProductoService;
 import com.yorusito.backend.image.service.ImageUploadService;
+import com.yorusito.backend.product.web.CatalogoCondicional;
+import com.yorusito.backend.product.web.RespuestasSerializadas;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -29,22 +60,78 @@ import java.util.List;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ProductoResumenService productoResumenService;
     private final ImageUploadService imageUploadService;
+    private final ImportacionProductosService importacionProductosService;
+    private final ActualizacionMasivaService actualizacionMasivaService;
+    private final RespuestasSerializadas respuestasSerializadas;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
+    @CatalogoCondicional
     @Operation(summary = "Obtener productos", description = "Lista productos con paginación opcional")
     public ResponseEntity<Page<ProductoResponse>> obtenerTodos(
             @PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(productoService.obtenerTodosPaginado(pageable));
     }
 
-    @GetMapping("/lista")
+    @GetMapping("/resumen")
+    @CatalogoCondicional
+    @Operation(summary = "Listar productos resumidos",
+              description = "Lista productos activos con solo los datos de una grilla (nombre, precio, stock, imagen y categoría). Con fields= se eligen las columnas que se consultan y se devuelven")
+    public ResponseEntity<Page<ProductoResumenResponse>> obtenerResumen(
+            @RequestParam(required = false) Long categoriaId,
+            @Parameter(description = "Campos separados por coma: nombre, precio, stock, imagen_url, categoria_id, categoria_nombre. El id se incluye siempre")
+            @RequestParam(required = false) String fields,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(productoResumenService.listar(categoriaId, fields, pageable));
+    }
+
+    @GetMapping("/cursor")
+    @CatalogoCondicional
+    @Operation(summary = "Obtener productos por cursor", description = "Lista productos, los más recientes primero, con paginación por cursor para scroll infinito")
+    public ResponseEntity<PaginaCursorResponse<ProductoResponse>> obtenerPorCursor(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productoService.obtenerPorCursor(cursor, limitarTamanio(size)));
+    }
+
+    @GetMapping(value = "/lista", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CatalogoCondicional
     @Operation(summary = "Obtener todos los productos", description = "Lista todos los productos activos sin paginación")
-    public ResponseEntity<List<ProductoResponse>> obtenerTodosLista() {
-        return ResponseEntity.ok(productoService.obtenerTodos());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductoResponse.class))))
+    public void obtenerTodosLista(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        respuestasSerializadas.escribir(respuestasSerializadas.listado("lista", productoService::obtenerTodos), request, response);
+    }
+
+    @GetMapping(value = "/lista", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @CatalogoCondicional
+    @Operation(summary = "Exportar productos en NDJSON",
+              description = "Emite los productos activos como NDJSON (un objeto por línea) a medida que se leen de la base de datos, con memoria constante. Se elige con Accept: application/x-ndjson")
+    public void exportarLista(HttpServletResponse response) throws IOException {
+        ObjectWriter escritor = objectMapper.writerFor(ProductoResponse.class);
+        OutputStream salida = response.getOutputStream();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        productoService.exportarActivos(producto -> {
+            try {
+                salida.write(escritor.writeValueAsBytes(producto));
+                salida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocompletar búsqueda", description = "Sugiere productos, categorías y colecciones cuyo nombre tiene una palabra que empieza por el texto escrito, ordenados por popularidad")
+    public ResponseEntity<List<SugerenciaResponse>> autocompletar(
+            @Parameter(description = "Texto escrito hasta el momento") @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productoService.autocompletar(q, Math.min(limit, IndiceAutocompletado.MAXIMO_SUGERENCIAS)));
     }
 
     @GetMapping("/buscar")
+    @CatalogoCondicional
     @Operation(summary = "Buscar productos", description = "Busca productos por nombre o descripción")
     public ResponseEntity<Page<ProductoResponse>> buscarProductos(
             @Parameter(description = "Término de búsqueda") @RequestParam String search,
@@ -53,26 +140,61 @@ public class ProductoController {
     }
 
     @GetMapping("/buscar/avanzada")
+    @CatalogoCondicional
     @Operation(summary = "Búsqueda avanzada de productos", description = "Búsqueda avanzada con filtros múltiples")
     public ResponseEntity<Page<ProductoResponse>> busquedaAvanzada(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long coleccionId,
             @RequestParam(required = false) java.math.BigDecimal precioMin,
             @RequestParam(required = false) java.math.BigDecimal precioMax,
             @RequestParam(required = false) Boolean enStock,
-            @RequestParam(defaultValue = "nombre") String ordenarPor,
+            @Parameter(description = "nombre, precio o fechaCreacion") @RequestParam(defaultValue = "nombre") String ordenarPor,
             @RequestParam(defaultValue = "asc") String direccion,
             @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(productoService.busquedaAvanzada(search, categoriaId, precioMin, precioMax, enStock, ordenarPor, direccion, pageable));
+        return ResponseEntity.ok(productoService.busquedaAvanzada(search, categoriaId, coleccionId, precioMin, precioMax, enStock, ordenarPor, direccion, pageable));
+    }
+
+    @GetMapping("/buscar/facetas")
+    @CatalogoCondicional
+    @Operation(summary = "Facetas de búsqueda", description = "Cantidad de productos por categoría, colección y rango de precio para los filtros dados")
+    public ResponseEntity<FacetasResponse> obtenerFacetas(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long coleccionId,
+            @RequestParam(required = false) java.math.BigDecimal precioMin,
+            @RequestParam(required = false) java.math.BigDecimal precioMax,
+            @RequestParam(required = false) Boolean enStock) {
+        return ResponseEntity.ok(productoService.obtenerFacetas(search, categoriaId, coleccionId, precioMin, precioMax, enStock));
+    }
+
+    @GetMapping("/buscar/avanzada/cursor")
+    @CatalogoCondicional
+    @Operation(summary = "Búsqueda avanzada por cursor", description = "Búsqueda avanzada con paginación por cursor, ordenada por fecha o por precio")
+    public ResponseEntity<PaginaCursorResponse<ProductoResponse>> busquedaAvanzadaPorCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) java.math.BigDecimal precioMin,
+            @RequestParam(required = false) java.math.BigDecimal precioMax,
+            @RequestParam(required = false) Boolean enStock,
+            @Parameter(description = "fecha o precio") @RequestParam(defaultValue = "fecha") String ordenarPor,
+            @Parameter(description = "asc o desc; por defecto desc para fecha (más recientes primero) y asc para precio")
+            @RequestParam(required = false) String direccion,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productoService.busquedaAvanzadaPorCursor(search, categoriaId, precioMin, precioMax, enStock,
+                ordenarPor, direccion, cursor, limitarTamanio(size)));
     }
 
     @GetMapping("/categoria/{categoriaId}")
+    @CatalogoCondicional
     @Operation(summary = "Obtener productos por categoría", description = "Lista productos de una categoría específica")
     public ResponseEntity<List<ProductoResponse>> obtenerPorCategoria(@PathVariable Long categoriaId) {
         return ResponseEntity.ok(productoService.obtenerPorCategoria(categoriaId));
     }
 
     @GetMapping("/new-arrivals")
+    @CatalogoCondicional
     @Operation(summary = "Obtener nuevos llegados", description = "Lista los productos más recientemente agregados")
     public ResponseEntity<List<ProductoResponse>> obtenerNuevosLlegados(
             @Parameter(description = "Número máximo de productos a retornar") 
@@ -83,10 +205,23 @@ public class ProductoController {
         return ResponseEntity.ok(productoService.obtenerNuevosLlegados(limite));
     }
 
-    @GetMapping("/{id}")
+    @GetMapping("/cache/estadisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estadísticas de las cachés de productos", description = "Aciertos, fallos y desalojos de las cachés del catálogo y de respuestas serializadas (solo administradores)",
+              security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<List<CacheEstadisticasResponse>> obtenerEstadisticasCache() {
+        List<CacheEstadisticasResponse> estadisticas = new ArrayList<>();
+        estadisticas.addAll(productoService.obtenerEstadisticasCache());
+        estadisticas.addAll(respuestasSerializadas.estadisticas());
+        return ResponseEntity.ok(estadisticas);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CatalogoCondicional
     @Operation(summary = "Obtener producto por ID", description = "Obtiene un producto específico por su ID")
-    public ResponseEntity<ProductoResponse> obtenerPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(productoService.obtenerPorId(id));
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductoResponse.class)))
+    public void obtenerPorId(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        respuestasSerializadas.escribir(respuestasSerializadas.producto(id, () -> productoService.obtenerPorId(id)), request, response);
     }
 
     @PostMapping
@@ -97,6 +232,30 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productoService.crear(request));
     }
     
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar productos",
+              description = "Importa productos en bloque desde CSV con cabecera (nombre, descripcion, precio, stock, imagen_url, categoria_id, coleccion_id) o NDJSON, reportando los errores por fila (solo administradores)",
+              security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ImportacionResultadoResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream cuerpo) {
+        FormatoImportacion formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? FormatoImportacion.NDJSON : FormatoImportacion.CSV;
+        return ResponseEntity.ok(importacionProductosService.importar(cuerpo, formato));
+    }
+
+    @PutMapping("/actualizacion-masiva")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Actualizar precios y stock en bloque",
+              description = "Aplica precio y/o stock a varios productos por lotes; los cambios de stock quedan como movimientos de inventario (solo administradores)",
+              security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ActualizacionMasivaResponse> actualizarMasivo(
+            Authentication authentication,
+            @Valid @RequestBody ActualizacionMasivaRequest request) {
+        return ResponseEntity.ok(actualizacionMasivaService.actualizar(request, authentication.getName()));
+    }
+
     @PostMapping("/con-imagen")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Crear producto con imagen", description = "Crea un nuevo producto subiendo imagen automáticamente (solo administradores)",
@@ -198,15 +357,19 @@ public class ProductoController {
     }
 
     @GetMapping("/populares")
-    @Operation(summary = "Productos populares", description = "Obtiene productos populares basado en reviews")
+    @Operation(summary = "Productos populares", description = "Obtiene los productos más vendidos recientemente (ventas con decaimiento temporal)")
     public ResponseEntity<List<ProductoResponse>> obtenerProductosPopulares(
             @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(productoService.obtenerProductosPopulares(limit));
+        return ResponseEntity.ok(productoService.obtenerProductosPopulares(limitarTamanio(limit)));
     }
 
     @GetMapping("/relacionados/{id}")
-    @Operation(summary = "Productos relacionados", description = "Obtiene productos relacionados basado en la categoría")
+    @Operation(summary = "Productos relacionados", description = "Obtiene productos comprados junto con el indicado, completando con productos de la misma categoría")
     public ResponseEntity<List<ProductoResponse>> obtenerProductosRelacionados(@PathVariable Long id) {
         return ResponseEntity.ok(productoService.obtenerProductosRelacionados(id));
     }
+
+    private int limitarTamanio(int size) {
+        return Math.max(1, Math.min(size, 100)); // Limitar máximo a 100 productos por página
+    }
 }
@@ -0,0 +1,44 @@
+package com.yorusito.backend.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizacionMasivaRequest {
+
+    @NotEmpty(message = "Debe indicar al menos un producto")
+    private List<@Valid @NotNull Item> items;
+
+    private String motivo;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "El id del producto es obligatorio")
+        private Long id;
+
+        /** Nuevo precio; si es nulo no se modifica. */
+        @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
+        private BigDecimal precio;
+
+        /** Nuevo stock absoluto; si es nulo no se modifica. */
+        @Min(value = 0, message = "El stock no puede ser negativo")
+        private Integer stock;
+    }
+}
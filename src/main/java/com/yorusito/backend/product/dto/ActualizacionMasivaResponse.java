@@ -0,0 +1,21 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizacionMasivaResponse {
+    private Integer solicitados;
+    private Integer actualizados;
+    private Integer movimientosStock;
+    private Integer lotes;
+    private Long duracionMs;
+    private List<Long> noEncontrados;
+}
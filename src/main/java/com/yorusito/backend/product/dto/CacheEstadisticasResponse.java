@@ -0,0 +1,21 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEstadisticasResponse {
+    private String nombre;
+    private Long version;
+    private Integer entradas;
+    private Integer capacidadMaxima;
+    private Long aciertos;
+    private Long fallos;
+    private Long desalojos;
+    private Double tasaAciertos;
+}
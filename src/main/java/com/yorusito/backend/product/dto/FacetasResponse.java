@@ -0,0 +1,41 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetasResponse {
+    private Integer total;
+    private Integer enStock;
+    private List<FacetaValor> categorias;
+    private List<FacetaValor> colecciones;
+    private List<FacetaRangoPrecio> rangosPrecio;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetaValor {
+        private Long id;
+        private String nombre;
+        private Integer cantidad;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetaRangoPrecio {
+        private BigDecimal desde;
+        private BigDecimal hasta;
+        private Integer cantidad;
+    }
+}
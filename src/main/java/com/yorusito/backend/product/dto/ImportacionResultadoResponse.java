@@ -0,0 +1,30 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionResultadoResponse {
+    private Integer procesadas;
+    private Integer importadas;
+    private Integer fallidas;
+    private Long duracionMs;
+    /** Solo se detallan los primeros errores; {@code fallidas} tiene el total. */
+    private List<ErrorFila> errores;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+        private Integer fila;
+        private String mensaje;
+    }
+}
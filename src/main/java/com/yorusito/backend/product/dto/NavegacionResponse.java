@@ -0,0 +1,30 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NavegacionResponse {
+    private List<CategoriaNavegacion> categorias;
+    private List<ColeccionResponse> coleccionesDestacadas;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoriaNavegacion {
+        private Long id;
+        private String nombre;
+        /** Productos activos de la categoría. */
+        private Integer productosActivos;
+        /** Productos activos con stock disponible. */
+        private Integer productosEnStock;
+    }
+}
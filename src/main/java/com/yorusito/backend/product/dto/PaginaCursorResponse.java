@@ -0,0 +1,19 @@
+package com.yorusito.backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorResponse<T> {
+    private List<T> contenido;
+    private String siguienteCursor;
+    private Boolean tieneMas;
+    private Integer tamanio;
+}
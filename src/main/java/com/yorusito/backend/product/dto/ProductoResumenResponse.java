@@ -0,0 +1,29 @@
+package com.yorusito.backend.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Vista reducida de un producto para grillas y listados. Se arma con una
+ * expresión constructora directamente desde la consulta; los campos no pedidos
+ * con {@code fields=} quedan en null y no se serializan.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductoResumenResponse {
+    private Long id;
+    private String nombre;
+    private BigDecimal precio;
+    private Integer stock;
+    private String imagenUrl;
+    private Long categoriaId;
+    private String categoriaNombre;
+}
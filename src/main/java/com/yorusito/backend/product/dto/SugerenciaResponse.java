@@ -0,0 +1,17 @@
+package com.yorusito.backend.product.dto;
+
+import com.yorusito.backend.product.search.IndiceAutocompletado.TipoSugerencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugerenciaResponse {
+    private TipoSugerencia tipo;
+    private Long id;
+    private String texto;
+}
@@ -0,0 +1,28 @@
+package com.yorusito.backend.product.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Se publica tras cualquier escritura que cambie lo que el catálogo muestra.
+ * Si {@code productoIds} está vacío el cambio afecta a todo el catálogo
+ * (p. ej. una categoría o colección renombrada).
+ */
+public record CatalogoModificadoEvent(Set<Long> productoIds) {
+
+    public static CatalogoModificadoEvent deProductos(Collection<Long> productoIds) {
+        return new CatalogoModificadoEvent(Set.copyOf(productoIds));
+    }
+
+    public static CatalogoModificadoEvent deProducto(Long productoId) {
+        return new CatalogoModificadoEvent(Set.of(productoId));
+    }
+
+    public static CatalogoModificadoEvent completo() {
+        return new CatalogoModificadoEvent(Set.of());
+    }
+
+    public boolean esCompleto() {
+        return productoIds.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.yorusito.backend.product.event;
+
+import java.util.List;
+
+/**
+ * Se publica dentro de la transacción que ajustó el stock de varios productos
+ * en bloque, para que el inventario registre los movimientos en la misma transacción.
+ */
+public record StockAjustadoEvent(List<CambioStock> cambios, String motivo, String usuario) {
+
+    public record CambioStock(Long productoId, int stockAnterior, int stockActual) {
+    }
+}
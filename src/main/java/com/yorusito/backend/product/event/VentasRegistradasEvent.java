@@ -0,0 +1,16 @@
+package com.yorusito.backend.product.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Se publica al confirmar un pedido con las unidades vendidas de cada producto.
+ * Al cancelar un pedido se publica con las mismas unidades en negativo y la
+ * fecha original del pedido, para descontar exactamente lo que sumó.
+ */
+public record VentasRegistradasEvent(Map<Long, Integer> cantidadesPorProducto, LocalDateTime fecha) {
+
+    public VentasRegistradasEvent {
+        cantidadesPorProducto = Map.copyOf(cantidadesPorProducto);
+    }
+}
@@ -0,0 +1,147 @@
+package com.yorusito.backend.product.ranking;
+
+import com.yorusito.backend.product.event.VentasRegistradasEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Ranking de popularidad por velocidad de ventas. Cada unidad vendida suma
+ * {@code e^(λ·(t - referencia))}, con λ derivado de la vida media configurada
+ * (decaimiento hacia adelante): así una venta nunca necesita re-escalar a las
+ * demás y el orden relativo solo cambia cuando entra una venta nueva. Los
+ * puntajes se guardan también en un conjunto ordenado, por lo que leer el
+ * top-K es recorrer sus primeros K elementos.
+ */
+@Component
+@Slf4j
+public class PopularidadProductos {
+
+    /** Por encima de este exponente se mueve la referencia para no desbordar el double. */
+    private static final double EXPONENTE_MAXIMO = 200;
+
+    private static final Comparator<Puntaje> POR_PUNTAJE_DESC = Comparator
+            .comparingDouble(Puntaje::valor).reversed()
+            .thenComparing(Puntaje::productoId);
+
+    private final double lambda;
+    private final Map<Long, Puntaje> puntajes = new HashMap<>();
+    private final TreeSet<Puntaje> ranking = new TreeSet<>(POR_PUNTAJE_DESC);
+    private long referencia;
+
+    public PopularidadProductos(@Value("${catalogo.popularidad.vida-media-horas:72}") double vidaMediaHoras) {
+        this.lambda = Math.log(2) / (vidaMediaHoras * 3600);
+        this.referencia = ahora();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alRegistrarVentas(VentasRegistradasEvent evento) {
+        evento.cantidadesPorProducto().forEach((productoId, cantidad) ->
+                registrarVenta(productoId, cantidad, evento.fecha()));
+    }
+
+    /**
+     * Suma la venta al puntaje del producto. Una cantidad negativa descuenta una
+     * venta anulada; con la misma fecha que la original resta lo mismo que sumó.
+     */
+    public synchronized void registrarVenta(Long productoId, int cantidad, LocalDateTime fecha) {
+        Puntaje anterior = puntajes.get(productoId);
+        if (cantidad == 0 || (cantidad < 0 && anterior == null)) {
+            return;
+        }
+        long segundos = fecha.toEpochSecond(ZoneOffset.UTC);
+        if (lambda * (segundos - referencia) > EXPONENTE_MAXIMO) {
+            moverReferencia(segundos);
+        }
+
+        double incremento = cantidad * Math.exp(lambda * (segundos - referencia));
+        // Se relee: moverReferencia pudo reemplazar el puntaje anterior
+        anterior = puntajes.get(productoId);
+        double valor = anterior == null ? incremento : anterior.valor() + incremento;
+        if (anterior != null) {
+            ranking.remove(anterior);
+        }
+        // Al descontar todas sus ventas queda un residuo de redondeo: el producto sale del ranking
+        if (valor <= Math.abs(incremento) * 1e-9) {
+            puntajes.remove(productoId);
+            return;
+        }
+        Puntaje nuevo = new Puntaje(productoId, valor);
+        puntajes.put(productoId, nuevo);
+        ranking.add(nuevo);
+    }
+
+    /**
+     * Devuelve hasta {@code k} productos en orden de popularidad, saltando los
+     * que no cumplan {@code incluir} (p. ej. productos desactivados).
+     */
+    public synchronized List<Long> top(int k, Predicate<Long> incluir) {
+        List<Long> resultado = new ArrayList<>(k);
+        for (Puntaje puntaje : ranking) {
+            if (resultado.size() == k) {
+                break;
+            }
+            if (incluir.test(puntaje.productoId())) {
+                resultado.add(puntaje.productoId());
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Puntaje actual del producto, o 0 si no tiene ventas en el ranking. Solo es
+     * comparable con otros puntajes leídos mientras no se mueva la referencia.
+     */
+    public synchronized double puntaje(Long productoId) {
+        Puntaje puntaje = puntajes.get(productoId);
+        return puntaje != null ? puntaje.valor() : 0;
+    }
+
+    public synchronized void limpiar() {
+        puntajes.clear();
+        ranking.clear();
+        referencia = ahora();
+    }
+
+    public synchronized int tamanio() {
+        return puntajes.size();
+    }
+
+    /**
+     * Re-escala todos los puntajes a una referencia más reciente; al aplicar el
+     * mismo factor a todos el orden del ranking se conserva.
+     */
+    private void moverReferencia(long nuevaReferencia) {
+        double factor = Math.exp(-lambda * (nuevaReferencia - referencia));
+        List<Puntaje> escalados = new ArrayList<>(ranking.size());
+        for (Puntaje puntaje : ranking) {
+            escalados.add(new Puntaje(puntaje.productoId(), puntaje.valor() * factor));
+        }
+        ranking.clear();
+        ranking.addAll(escalados);
+        escalados.forEach(puntaje -> puntajes.put(puntaje.productoId(), puntaje));
+        referencia = nuevaReferencia;
+        log.debug("Referencia de popularidad movida a {}", nuevaReferencia);
+    }
+
+    private static long ahora() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record Puntaje(Long productoId, double valor) {
+    }
+}
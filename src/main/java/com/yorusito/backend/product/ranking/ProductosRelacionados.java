@@ -0,0 +1,124 @@
+package com.yorusito.backend.product.ranking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Vecinos "comprados juntos" de cada producto. A partir de las cestas de los
+ * pedidos se arma una matriz dispersa de co-ocurrencias y para cada producto se
+ * guardan los N vecinos con mayor similitud coseno
+ * ({@code co(a,b) / sqrt(n(a)·n(b))}), que no favorece a los productos que
+ * simplemente se venden mucho. El cálculo lo dispara un job en segundo plano,
+ * que reconstruye la matriz o le suma las cestas nuevas; las lecturas solo
+ * consultan el mapa ya publicado.
+ */
+@Component
+@Slf4j
+public class ProductosRelacionados {
+
+    private final int vecinosPorProducto;
+    private final int maximoPorCesta;
+    // Contadores de la última reconstrucción más las cestas agregadas desde entonces
+    private final Map<Long, Integer> apariciones = new HashMap<>();
+    private final Map<Long, Map<Long, Integer>> coocurrencias = new HashMap<>();
+    private volatile Map<Long, List<Long>> vecinos = Map.of();
+
+    public ProductosRelacionados(@Value("${catalogo.relacionados.vecinos:10}") int vecinosPorProducto,
+                                 @Value("${catalogo.relacionados.maximo-por-cesta:50}") int maximoPorCesta) {
+        this.vecinosPorProducto = vecinosPorProducto;
+        this.maximoPorCesta = maximoPorCesta;
+    }
+
+    public List<Long> vecinosDe(Long productoId) {
+        return vecinos.getOrDefault(productoId, List.of());
+    }
+
+    /**
+     * Recalcula la matriz a partir de las cestas dadas (ids de producto de cada
+     * pedido) y reemplaza de una vez el mapa de vecinos.
+     */
+    public synchronized void recalcular(Collection<? extends Collection<Long>> cestas) {
+        apariciones.clear();
+        coocurrencias.clear();
+        cestas.forEach(this::contar);
+
+        Map<Long, List<Long>> nuevos = new HashMap<>(coocurrencias.size() * 2);
+        coocurrencias.forEach((producto, fila) -> nuevos.put(producto, mejoresVecinos(producto, fila)));
+        vecinos = Map.copyOf(nuevos);
+        log.info("Productos relacionados recalculados: {} cestas, {} productos con vecinos", cestas.size(), nuevos.size());
+    }
+
+    /**
+     * Suma cestas nuevas a la matriz y recalcula solo los vecinos de los
+     * productos afectados: los de las cestas y los que co-ocurren con ellos,
+     * cuya similitud cambia al cambiar las apariciones.
+     */
+    public synchronized void agregar(Collection<? extends Collection<Long>> cestas) {
+        Set<Long> tocados = new HashSet<>();
+        for (Collection<Long> cesta : cestas) {
+            tocados.addAll(contar(cesta));
+        }
+        if (tocados.isEmpty()) {
+            return;
+        }
+        Set<Long> afectados = new HashSet<>(tocados);
+        tocados.forEach(producto -> afectados.addAll(coocurrencias.getOrDefault(producto, Map.of()).keySet()));
+
+        Map<Long, List<Long>> nuevos = new HashMap<>(vecinos);
+        afectados.forEach(producto -> nuevos.put(producto, mejoresVecinos(producto, coocurrencias.get(producto))));
+        vecinos = Map.copyOf(nuevos);
+        log.debug("Productos relacionados actualizados: {} cestas nuevas, {} productos afectados", cestas.size(), afectados.size());
+    }
+
+    /**
+     * Suma una cesta a los contadores y devuelve sus productos, o un conjunto
+     * vacío si la cesta no se cuenta.
+     */
+    private Set<Long> contar(Collection<Long> cesta) {
+        Set<Long> unicos = new HashSet<>(cesta);
+        Long[] productos = unicos.toArray(Long[]::new);
+        // Las cestas enormes aportan poca señal y cuestan O(n²) pares
+        if (productos.length < 2 || productos.length > maximoPorCesta) {
+            return Set.of();
+        }
+        for (int i = 0; i < productos.length; i++) {
+            apariciones.merge(productos[i], 1, Integer::sum);
+            for (int j = i + 1; j < productos.length; j++) {
+                coocurrencias.computeIfAbsent(productos[i], k -> new HashMap<>()).merge(productos[j], 1, Integer::sum);
+                coocurrencias.computeIfAbsent(productos[j], k -> new HashMap<>()).merge(productos[i], 1, Integer::sum);
+            }
+        }
+        return unicos;
+    }
+
+    private List<Long> mejoresVecinos(Long producto, Map<Long, Integer> fila) {
+        int propias = apariciones.get(producto);
+        Comparator<Map.Entry<Long, Double>> porSimilitud = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> mejores = new PriorityQueue<>(porSimilitud);
+
+        fila.forEach((vecino, conjuntas) -> {
+            double similitud = conjuntas / Math.sqrt((double) propias * apariciones.get(vecino));
+            mejores.add(Map.entry(vecino, similitud));
+            if (mejores.size() > vecinosPorProducto) {
+                mejores.poll();
+            }
+        });
+
+        Long[] ordenados = new Long[mejores.size()];
+        for (int i = ordenados.length - 1; i >= 0; i--) {
+            ordenados[i] = mejores.poll().getKey();
+        }
+        return List.of(ordenados);
+    }
+}
@@ -2,12 +2,29 @@ package com.yorusito.backend.product.repository;
 
 import com.yorusito.backend.product.entity.Categoria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     Optional<Categoria> findByNombre(String nombre);
     boolean existsByNombre(String nombre);
+
+    /**
+     * Productos activos y productos activos con stock de cada categoría, en una
+     * sola consulta agrupada. Las categorías sin productos activos no aparecen.
+     */
+    @Query("SELECT p.categoria.id AS categoriaId, COUNT(p) AS activos, " +
+           "SUM(CASE WHEN p.stock > 0 THEN 1 ELSE 0 END) AS enStock " +
+           "FROM Producto p WHERE p.activo = true GROUP BY p.categoria.id")
+    List<ConteoCategoria> contarProductosActivos();
+
+    interface ConteoCategoria {
+        Long getCategoriaId();
+        Long getActivos();
+        Long getEnStock();
+    }
 }
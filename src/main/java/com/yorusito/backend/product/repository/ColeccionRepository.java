@@ -3,8 +3,10 @@ package com.yorusito.backend.product.repository;
 import com.yorusito.backend.product.entity.Coleccion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,8 +44,27 @@ public interface ColeccionRepository extends JpaRepository<Coleccion, Long> {
     boolean existsByNombreAndIdNot(String nombre, Long id);
     
     /**
-     * Obtener colecciones con cantidad de productos
+     * Colecciones con fecha de inicio o de fin, cuya activación se programa
      */
-    @Query("SELECT c FROM Coleccion c LEFT JOIN FETCH c.productos WHERE c.activa = true ORDER BY c.fechaCreacion DESC")
-    List<Coleccion> findColeccionesConProductos();
+    @Query("SELECT c FROM Coleccion c WHERE c.fechaInicio IS NOT NULL OR c.fechaFin IS NOT NULL")
+    List<Coleccion> findConVigencia();
+
+    /**
+     * Cantidad de productos de cada colección indicada, en una sola consulta agrupada.
+     * Las colecciones sin productos no aparecen en el resultado.
+     */
+    @Query("SELECT p.coleccion.id AS coleccionId, COUNT(p) AS cantidad FROM Producto p " +
+           "WHERE p.coleccion.id IN :ids GROUP BY p.coleccion.id")
+    List<ConteoProductos> contarProductosPorColeccion(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cantidad de productos de una colección, sin cargar la asociación
+     */
+    @Query("SELECT COUNT(p) FROM Producto p WHERE p.coleccion.id = :id")
+    long contarProductos(@Param("id") Long id);
+
+    interface ConteoProductos {
+        Long getColeccionId();
+        Long getCantidad();
+    }
 }
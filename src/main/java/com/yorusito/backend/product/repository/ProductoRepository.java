@@ -1,21 +1,57 @@
 package com.yorusito.backend.product.repository;
 
 import com.yorusito.backend.product.entity.Producto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Las consultas de listado cargan categoría y colección en el mismo SELECT
+ * (entity graph), para que mapear una página a ProductoResponse no dispare
+ * una consulta adicional por producto.
+ */
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
+
+    String FILTROS_AVANZADOS = "p.activo = true AND " +
+           "(:search IS NULL OR LOWER(p.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.descripcion) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:categoriaId IS NULL OR p.categoria.id = :categoriaId) AND " +
+           "(:precioMin IS NULL OR p.precio >= :precioMin) AND " +
+           "(:precioMax IS NULL OR p.precio <= :precioMax) AND " +
+           "(:enStock IS NULL OR (:enStock = true AND p.stock > 0) OR (:enStock = false))";
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
     List<Producto> findByActivoTrue();
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
     List<Producto> findByCategoriaIdAndActivoTrue(Long categoriaId);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
     Page<Producto> findByActivoTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    Optional<Producto> findConRelacionesById(Long id);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    List<Producto> findConRelacionesByIdIn(Collection<Long> ids);
     
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
     @Query("SELECT p FROM Producto p WHERE p.activo = true AND " +
            "(LOWER(p.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(p.descripcion) LIKE LOWER(CONCAT('%', :search, '%')))")
@@ -23,25 +59,108 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     
     Long countByStockLessThanEqual(Integer stock);
     
-    @Query("SELECT p FROM Producto p WHERE p.activo = true AND " +
-           "(:search IS NULL OR LOWER(p.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.descripcion) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
-           "(:categoriaId IS NULL OR p.categoria.id = :categoriaId) AND " +
-           "(:precioMin IS NULL OR p.precio >= :precioMin) AND " +
-           "(:precioMax IS NULL OR p.precio <= :precioMax) AND " +
-           "(:enStock IS NULL OR (:enStock = true AND p.stock > 0) OR (:enStock = false))")
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE " + FILTROS_AVANZADOS + " AND " +
+           "(:coleccionId IS NULL OR p.coleccion.id = :coleccionId)")
     Page<Producto> busquedaAvanzada(@Param("search") String search,
                                    @Param("categoriaId") Long categoriaId,
+                                   @Param("coleccionId") Long coleccionId,
                                    @Param("precioMin") java.math.BigDecimal precioMin,
                                    @Param("precioMax") java.math.BigDecimal precioMax,
                                    @Param("enStock") Boolean enStock,
                                    Pageable pageable);
     
-    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.id DESC")
-    List<Producto> findProductosPopulares(@Param("limit") int limit);
-    
-    List<Producto> findByCategoriaIdAndActivoTrueAndIdNot(Long categoriaId, Long productoId);
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    List<Producto> findByCategoriaIdAndActivoTrueAndIdNotOrderByFechaCreacionDesc(Long categoriaId, Long productoId, Limit limite);
     
     // Método para obtener nuevos llegados (productos más recientes)
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
     List<Producto> findByActivoTrueOrderByFechaCreacionDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"categoria"})
+    @Query("SELECT p FROM Producto p")
+    List<Producto> findAllConCategoria();
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p")
+    List<Producto> findAllConRelaciones();
+
+    /**
+     * Cursor de solo avance sobre los productos activos para exportaciones; debe
+     * consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @Query("SELECT p FROM Producto p JOIN FETCH p.categoria LEFT JOIN FETCH p.coleccion " +
+           "WHERE p.activo = true ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Producto> streamActivos();
+
+    // Paginación por cursor (keyset): la siguiente página se busca a partir de la última fila
+    // entregada, sin OFFSET ni consulta COUNT
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE p.activo = true ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Producto> findPrimerosPorFecha(Limit limite);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE p.activo = true AND " +
+           "(p.fechaCreacion < :fecha OR (p.fechaCreacion = :fecha AND p.id < :id)) " +
+           "ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Producto> findSiguientesPorFecha(@Param("fecha") LocalDateTime fecha,
+                                          @Param("id") Long id,
+                                          Limit limite);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE " + FILTROS_AVANZADOS + " AND " +
+           "(:cursorId IS NULL OR p.fechaCreacion < :fecha OR (p.fechaCreacion = :fecha AND p.id < :cursorId)) " +
+           "ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Producto> busquedaAvanzadaPorFecha(@Param("search") String search,
+                                            @Param("categoriaId") Long categoriaId,
+                                            @Param("precioMin") BigDecimal precioMin,
+                                            @Param("precioMax") BigDecimal precioMax,
+                                            @Param("enStock") Boolean enStock,
+                                            @Param("fecha") LocalDateTime fecha,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limite);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE " + FILTROS_AVANZADOS + " AND " +
+           "(:cursorId IS NULL OR p.fechaCreacion > :fecha OR (p.fechaCreacion = :fecha AND p.id > :cursorId)) " +
+           "ORDER BY p.fechaCreacion ASC, p.id ASC")
+    List<Producto> busquedaAvanzadaPorFechaAsc(@Param("search") String search,
+                                               @Param("categoriaId") Long categoriaId,
+                                               @Param("precioMin") BigDecimal precioMin,
+                                               @Param("precioMax") BigDecimal precioMax,
+                                               @Param("enStock") Boolean enStock,
+                                               @Param("fecha") LocalDateTime fecha,
+                                               @Param("cursorId") Long cursorId,
+                                               Limit limite);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE " + FILTROS_AVANZADOS + " AND " +
+           "(:cursorId IS NULL OR p.precio > :precio OR (p.precio = :precio AND p.id > :cursorId)) " +
+           "ORDER BY p.precio ASC, p.id ASC")
+    List<Producto> busquedaAvanzadaPorPrecioAsc(@Param("search") String search,
+                                                @Param("categoriaId") Long categoriaId,
+                                                @Param("precioMin") BigDecimal precioMin,
+                                                @Param("precioMax") BigDecimal precioMax,
+                                                @Param("enStock") Boolean enStock,
+                                                @Param("precio") BigDecimal precio,
+                                                @Param("cursorId") Long cursorId,
+                                                Limit limite);
+
+    @EntityGraph(attributePaths = {"categoria", "coleccion"})
+    @Query("SELECT p FROM Producto p WHERE " + FILTROS_AVANZADOS + " AND " +
+           "(:cursorId IS NULL OR p.precio < :precio OR (p.precio = :precio AND p.id < :cursorId)) " +
+           "ORDER BY p.precio DESC, p.id DESC")
+    List<Producto> busquedaAvanzadaPorPrecioDesc(@Param("search") String search,
+                                                 @Param("categoriaId") Long categoriaId,
+                                                 @Param("precioMin") BigDecimal precioMin,
+                                                 @Param("precioMax") BigDecimal precioMax,
+                                                 @Param("enStock") Boolean enStock,
+                                                 @Param("precio") BigDecimal precio,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Limit limite);
 }
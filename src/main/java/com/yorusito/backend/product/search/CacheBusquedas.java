@@ -0,0 +1,35 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.cache.CacheVersionada;
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU de resultados de búsqueda (páginas y facetas) por clave normalizada.
+ * Se versiona con el snapshot publicado y no con la versión del catálogo, porque
+ * el snapshot se publica después de actualizar los índices en memoria: una
+ * búsqueda cacheada con la versión nueva nunca sale de índices viejos.
+ */
+@Component
+public class CacheBusquedas {
+
+    private final CacheVersionada<String, Object> cache;
+
+    public CacheBusquedas(CatalogoPublicado catalogoPublicado,
+                          @Value("${catalogo.busquedas.max-entradas:1000}") int capacidadMaxima) {
+        this.cache = new CacheVersionada<>("busquedas", capacidadMaxima, catalogoPublicado::version);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String clave, Supplier<T> cargador) {
+        return (T) cache.obtener(clave, (Supplier<Object>) cargador);
+    }
+
+    public CacheEstadisticasResponse estadisticas() {
+        return cache.estadisticas();
+    }
+}
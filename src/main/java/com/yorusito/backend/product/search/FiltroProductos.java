@@ -0,0 +1,16 @@
+package com.yorusito.backend.product.search;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Criterios de la búsqueda avanzada. {@code candidatos} limita el resultado a
+ * los ids devueltos por la búsqueda de texto; {@code null} significa sin límite.
+ */
+public record FiltroProductos(Collection<Long> candidatos,
+                              Long categoriaId,
+                              Long coleccionId,
+                              BigDecimal precioMin,
+                              BigDecimal precioMax,
+                              Boolean enStock) {
+}
@@ -0,0 +1,418 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.VentasRegistradasEvent;
+import com.yorusito.backend.product.ranking.PopularidadProductos;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de prefijos para el autocompletado sobre los nombres de productos
+ * activos, categorías y colecciones activas. Cada nombre se indexa a partir de
+ * cada una de sus palabras, así "bla" sugiere "Polo Básico Blanco".
+ * <p>
+ * Es un trie de profundidad acotada en el que cada nodo guarda ya ordenadas las
+ * {@value #MAXIMO_SUGERENCIAS} mejores entradas de su subárbol, de modo que
+ * responder un prefijo corto es bajar unos pocos nodos y copiar esa lista. Los
+ * nodos del último nivel guardan las claves completas para filtrar prefijos más
+ * largos. El peso de un producto es su puntaje de popularidad y el de una
+ * categoría o colección la suma de los de sus productos activos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceAutocompletado {
+
+    public static final int MAXIMO_SUGERENCIAS = 10;
+    private static final int PROFUNDIDAD_MAXIMA = 8;
+    private static final Entrada[] SIN_ENTRADAS = new Entrada[0];
+
+    private static final Comparator<Entrada> MEJOR_PRIMERO = Comparator
+            .comparingDouble(Entrada::peso).reversed()
+            .thenComparingInt(entrada -> entrada.texto().length())
+            .thenComparing(Entrada::tipo)
+            .thenComparing(Entrada::id);
+
+    private final PopularidadProductos popularidad;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entrada> productos = new HashMap<>();
+    private final Map<Long, Pertenencia> pertenencias = new HashMap<>();
+    private final Map<Long, Entrada> categorias = new HashMap<>();
+    private final Map<Long, Entrada> colecciones = new HashMap<>();
+    private Nodo raiz = new Nodo();
+    private volatile boolean listo;
+
+    public void reconstruir(Collection<Producto> activos, Collection<Categoria> todasLasCategorias,
+                            Collection<Coleccion> todasLasColecciones) {
+        lock.writeLock().lock();
+        try {
+            raiz = new Nodo();
+            productos.clear();
+            pertenencias.clear();
+            categorias.clear();
+            colecciones.clear();
+
+            Map<Long, Double> pesoCategorias = new HashMap<>();
+            Map<Long, Double> pesoColecciones = new HashMap<>();
+            for (Producto producto : activos) {
+                Entrada entrada = entradaDe(producto);
+                Pertenencia pertenencia = pertenenciaDe(producto);
+                productos.put(producto.getId(), entrada);
+                pertenencias.put(producto.getId(), pertenencia);
+                insertar(entrada);
+                if (pertenencia.categoriaId() != null) {
+                    pesoCategorias.merge(pertenencia.categoriaId(), entrada.peso(), Double::sum);
+                }
+                if (pertenencia.coleccionId() != null) {
+                    pesoColecciones.merge(pertenencia.coleccionId(), entrada.peso(), Double::sum);
+                }
+            }
+            for (Categoria categoria : todasLasCategorias) {
+                Entrada entrada = new Entrada(TipoSugerencia.CATEGORIA, categoria.getId(), categoria.getNombre(),
+                        pesoCategorias.getOrDefault(categoria.getId(), 0.0));
+                categorias.put(categoria.getId(), entrada);
+                insertar(entrada);
+            }
+            for (Coleccion coleccion : todasLasColecciones) {
+                if (Boolean.TRUE.equals(coleccion.getActiva())) {
+                    Entrada entrada = new Entrada(TipoSugerencia.COLECCION, coleccion.getId(), coleccion.getNombre(),
+                            pesoColecciones.getOrDefault(coleccion.getId(), 0.0));
+                    colecciones.put(coleccion.getId(), entrada);
+                    insertar(entrada);
+                }
+            }
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de autocompletado construido: {} productos, {} categorías, {} colecciones",
+                productos.size(), categorias.size(), colecciones.size());
+    }
+
+    public void indexar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            quitarProducto(producto.getId());
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                agregarProducto(entradaDe(producto), pertenenciaDe(producto));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            quitarProducto(productoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-pondera los productos vendidos una vez que el ranking de popularidad
+     * ya registró la venta (por eso se ejecuta con la menor precedencia).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void alRegistrarVentas(VentasRegistradasEvent evento) {
+        lock.writeLock().lock();
+        try {
+            for (Long productoId : evento.cantidadesPorProducto().keySet()) {
+                Entrada anterior = productos.get(productoId);
+                if (anterior != null) {
+                    Pertenencia pertenencia = pertenencias.get(productoId);
+                    quitarProducto(productoId);
+                    agregarProducto(anterior.conPeso(popularidad.puntaje(productoId)), pertenencia);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Hasta {@code limite} sugerencias cuyo nombre tiene alguna palabra que
+     * empieza por {@code consulta}, de mayor a menor peso.
+     */
+    public List<Sugerencia> sugerir(String consulta, int limite) {
+        String prefijo = TextoNormalizador.frase(consulta);
+        int cantidad = Math.min(limite, MAXIMO_SUGERENCIAS);
+        if (prefijo.isEmpty() || cantidad <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            int profundidad = Math.min(prefijo.length(), PROFUNDIDAD_MAXIMA);
+            for (int i = 0; i < profundidad && nodo != null; i++) {
+                nodo = nodo.hijo(prefijo.charAt(i));
+            }
+            if (nodo == null) {
+                return List.of();
+            }
+
+            List<Entrada> encontradas;
+            if (prefijo.length() <= PROFUNDIDAD_MAXIMA) {
+                encontradas = Arrays.asList(nodo.mejores);
+            } else {
+                Set<Entrada> coincidencias = new LinkedHashSet<>();
+                for (Clave clave : nodo.claves) {
+                    if (clave.texto().startsWith(prefijo)) {
+                        coincidencias.add(clave.entrada());
+                    }
+                }
+                encontradas = new ArrayList<>(coincidencias);
+                encontradas.sort(MEJOR_PRIMERO);
+            }
+            return encontradas.stream()
+                    .limit(cantidad)
+                    .map(entrada -> new Sugerencia(entrada.tipo(), entrada.id(), entrada.texto()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entrada entradaDe(Producto producto) {
+        return new Entrada(TipoSugerencia.PRODUCTO, producto.getId(), producto.getNombre(),
+                popularidad.puntaje(producto.getId()));
+    }
+
+    private static Pertenencia pertenenciaDe(Producto producto) {
+        return new Pertenencia(
+                producto.getCategoria() != null ? producto.getCategoria().getId() : null,
+                producto.getColeccion() != null ? producto.getColeccion().getId() : null);
+    }
+
+    private void agregarProducto(Entrada entrada, Pertenencia pertenencia) {
+        productos.put(entrada.id(), entrada);
+        pertenencias.put(entrada.id(), pertenencia);
+        insertar(entrada);
+        ajustarPeso(categorias, pertenencia.categoriaId(), entrada.peso());
+        ajustarPeso(colecciones, pertenencia.coleccionId(), entrada.peso());
+    }
+
+    private void quitarProducto(Long productoId) {
+        Entrada entrada = productos.remove(productoId);
+        if (entrada == null) {
+            return;
+        }
+        Pertenencia pertenencia = pertenencias.remove(productoId);
+        quitar(entrada);
+        ajustarPeso(categorias, pertenencia.categoriaId(), -entrada.peso());
+        ajustarPeso(colecciones, pertenencia.coleccionId(), -entrada.peso());
+    }
+
+    private void ajustarPeso(Map<Long, Entrada> grupo, Long id, double diferencia) {
+        Entrada anterior = id != null ? grupo.get(id) : null;
+        if (anterior == null || diferencia == 0) {
+            return;
+        }
+        Entrada nueva = anterior.conPeso(Math.max(0, anterior.peso() + diferencia));
+        quitar(anterior);
+        insertar(nueva);
+        grupo.put(id, nueva);
+    }
+
+    private void insertar(Entrada entrada) {
+        for (String clave : claves(entrada.texto())) {
+            Nodo nodo = raiz;
+            nodo.ofrecer(entrada);
+            int profundidad = Math.min(clave.length(), PROFUNDIDAD_MAXIMA);
+            for (int i = 0; i < profundidad; i++) {
+                nodo = nodo.hijoOCrear(clave.charAt(i));
+                nodo.ofrecer(entrada);
+            }
+            nodo.claves.add(new Clave(clave, entrada));
+        }
+    }
+
+    private void quitar(Entrada entrada) {
+        for (String clave : claves(entrada.texto())) {
+            quitarClave(raiz, clave, 0, entrada);
+        }
+    }
+
+    /**
+     * Quita la clave del subárbol y recalcula las mejores entradas de los nodos
+     * del camino que la contenían. Devuelve si el nodo quedó vacío.
+     */
+    private boolean quitarClave(Nodo nodo, String clave, int profundidad, Entrada entrada) {
+        if (profundidad == Math.min(clave.length(), PROFUNDIDAD_MAXIMA)) {
+            nodo.claves.removeIf(existente -> existente.entrada().equals(entrada) && existente.texto().equals(clave));
+        } else {
+            char caracter = clave.charAt(profundidad);
+            Nodo hijo = nodo.hijo(caracter);
+            if (hijo != null && quitarClave(hijo, clave, profundidad + 1, entrada)) {
+                nodo.quitarHijo(caracter);
+            }
+        }
+        if (nodo.contiene(entrada)) {
+            nodo.recalcular();
+        }
+        return nodo.estaVacio();
+    }
+
+    /**
+     * Claves de un nombre: la frase plegada a partir de cada palabra.
+     */
+    private static Set<String> claves(String texto) {
+        String frase = TextoNormalizador.frase(texto);
+        Set<String> claves = new LinkedHashSet<>();
+        if (frase.isEmpty()) {
+            return claves;
+        }
+        claves.add(frase);
+        for (int i = frase.indexOf(' '); i >= 0; i = frase.indexOf(' ', i + 1)) {
+            claves.add(frase.substring(i + 1));
+        }
+        return claves;
+    }
+
+    public enum TipoSugerencia {
+        PRODUCTO, CATEGORIA, COLECCION
+    }
+
+    public record Sugerencia(TipoSugerencia tipo, Long id, String texto) {
+    }
+
+    private record Entrada(TipoSugerencia tipo, Long id, String texto, double peso) {
+
+        Entrada conPeso(double nuevoPeso) {
+            return new Entrada(tipo, id, texto, nuevoPeso);
+        }
+    }
+
+    private record Pertenencia(Long categoriaId, Long coleccionId) {
+    }
+
+    private record Clave(String texto, Entrada entrada) {
+    }
+
+    /**
+     * Nodo del trie con los hijos en arreglos ordenados por carácter, para que
+     * ocupe poco y se busque por bisección.
+     */
+    private static final class Nodo {
+
+        private char[] caracteres = new char[0];
+        private Nodo[] hijos = new Nodo[0];
+        private Entrada[] mejores = SIN_ENTRADAS;
+        private final List<Clave> claves = new ArrayList<>(0);
+
+        Nodo hijo(char caracter) {
+            int posicion = Arrays.binarySearch(caracteres, caracter);
+            return posicion >= 0 ? hijos[posicion] : null;
+        }
+
+        Nodo hijoOCrear(char caracter) {
+            int posicion = Arrays.binarySearch(caracteres, caracter);
+            if (posicion >= 0) {
+                return hijos[posicion];
+            }
+            int insercion = -posicion - 1;
+            Nodo nuevo = new Nodo();
+            char[] nuevosCaracteres = new char[caracteres.length + 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length + 1];
+            System.arraycopy(caracteres, 0, nuevosCaracteres, 0, insercion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, insercion);
+            nuevosCaracteres[insercion] = caracter;
+            nuevosHijos[insercion] = nuevo;
+            System.arraycopy(caracteres, insercion, nuevosCaracteres, insercion + 1, caracteres.length - insercion);
+            System.arraycopy(hijos, insercion, nuevosHijos, insercion + 1, hijos.length - insercion);
+            caracteres = nuevosCaracteres;
+            hijos = nuevosHijos;
+            return nuevo;
+        }
+
+        void quitarHijo(char caracter) {
+            int posicion = Arrays.binarySearch(caracteres, caracter);
+            if (posicion < 0) {
+                return;
+            }
+            char[] nuevosCaracteres = new char[caracteres.length - 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length - 1];
+            System.arraycopy(caracteres, 0, nuevosCaracteres, 0, posicion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, posicion);
+            System.arraycopy(caracteres, posicion + 1, nuevosCaracteres, posicion, caracteres.length - posicion - 1);
+            System.arraycopy(hijos, posicion + 1, nuevosHijos, posicion, hijos.length - posicion - 1);
+            caracteres = nuevosCaracteres;
+            hijos = nuevosHijos;
+        }
+
+        boolean contiene(Entrada entrada) {
+            for (Entrada mejor : mejores) {
+                if (mejor.equals(entrada)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean estaVacio() {
+            return hijos.length == 0 && claves.isEmpty();
+        }
+
+        /**
+         * Mete la entrada en la lista de mejores si le alcanza el peso.
+         */
+        void ofrecer(Entrada entrada) {
+            if (contiene(entrada)) {
+                return;
+            }
+            if (mejores.length == MAXIMO_SUGERENCIAS
+                    && MEJOR_PRIMERO.compare(entrada, mejores[mejores.length - 1]) >= 0) {
+                return;
+            }
+            int posicion = Arrays.binarySearch(mejores, entrada, MEJOR_PRIMERO);
+            int insercion = posicion >= 0 ? posicion : -posicion - 1;
+            int tamanio = Math.min(mejores.length + 1, MAXIMO_SUGERENCIAS);
+            Entrada[] nuevas = new Entrada[tamanio];
+            System.arraycopy(mejores, 0, nuevas, 0, insercion);
+            nuevas[insercion] = entrada;
+            System.arraycopy(mejores, insercion, nuevas, insercion + 1, tamanio - insercion - 1);
+            mejores = nuevas;
+        }
+
+        /**
+         * Las mejores de un nodo salen de sus propias claves y de las mejores de
+         * cada hijo: ninguna entrada fuera de esas listas puede superarlas.
+         */
+        void recalcular() {
+            Set<Entrada> candidatas = new LinkedHashSet<>();
+            claves.forEach(clave -> candidatas.add(clave.entrada()));
+            for (Nodo hijo : hijos) {
+                candidatas.addAll(Arrays.asList(hijo.mejores));
+            }
+            mejores = candidatas.stream()
+                    .sorted(MEJOR_PRIMERO)
+                    .limit(MAXIMO_SUGERENCIAS)
+                    .toArray(Entrada[]::new);
+        }
+    }
+}
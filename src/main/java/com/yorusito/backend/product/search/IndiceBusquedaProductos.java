@@ -0,0 +1,365 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.entity.Producto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de los productos
+ * activos, con ranking BM25. El nombre pesa el doble que la descripción.
+ * Todos los términos de la consulta deben aparecer en el producto; la última
+ * palabra además se expande por prefijo sobre las palabras tal como aparecen
+ * en los productos, para que "pol" encuentre "polo" y "polera".
+ * <p>
+ * La búsqueda aproximada corrige además las palabras sin coincidencias: los
+ * candidatos salen de un índice de trigramas sobre el vocabulario y se
+ * confirman con una distancia de edición acotada; su puntaje se multiplica por
+ * la similitud con la palabra escrita.
+ */
+@Component
+@Slf4j
+public class IndiceBusquedaProductos {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_NOMBRE = 2;
+    private static final int LONGITUD_MINIMA_PREFIJO = 3;
+    private static final int MAXIMO_EXPANSIONES_PREFIJO = 50;
+    private static final double FACTOR_PREFIJO = 0.5;
+    private static final int LONGITUD_MINIMA_CORRECCION = 4;
+    private static final int MAXIMO_VERIFICACIONES = 200;
+    private static final int MAXIMO_CORRECCIONES = 3;
+    private static final int MAXIMO_VERIFICACIONES_INICIAL = 2000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // Palabra plegada sin stemming → cantidad de productos que la contienen
+    private final TreeMap<String, Integer> vocabulario = new TreeMap<>();
+    // Trigrama → palabras del vocabulario que lo contienen
+    private final Map<String, Set<String>> trigramas = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private long longitudTotal;
+    private volatile boolean listo;
+
+    public void reconstruir(Collection<Producto> productos) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            vocabulario.clear();
+            trigramas.clear();
+            documentos.clear();
+            longitudTotal = 0;
+            for (Producto producto : productos) {
+                if (Boolean.TRUE.equals(producto.getActivo())) {
+                    agregar(producto);
+                }
+            }
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda construido: {} productos, {} términos", documentos.size(), postings.size());
+    }
+
+    public void indexar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            quitar(producto.getId());
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                agregar(producto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            quitar(productoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Busca los productos que contienen todos los términos de la consulta,
+     * ordenados por puntaje BM25 descendente.
+     */
+    public List<ResultadoBusqueda> buscar(String consulta) {
+        return buscar(consulta, false);
+    }
+
+    /**
+     * Igual que {@link #buscar(String)}, pero las palabras que no coinciden con
+     * ningún producto se reemplazan por sus correcciones más cercanas del
+     * vocabulario ("poleron" → "polera"). Pensada para cuando la búsqueda exacta
+     * no devuelve nada.
+     */
+    public List<ResultadoBusqueda> buscarAproximado(String consulta) {
+        return buscar(consulta, true);
+    }
+
+    private List<ResultadoBusqueda> buscar(String consulta, boolean aproximado) {
+        List<String> palabras = TextoNormalizador.palabras(consulta);
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documentos.isEmpty()) {
+                return List.of();
+            }
+            double longitudPromedio = (double) longitudTotal / documentos.size();
+
+            Map<Long, Double> puntajes = null;
+            for (int i = 0; i < palabras.size(); i++) {
+                String palabra = palabras.get(i);
+                String raiz = TextoNormalizador.raiz(palabra);
+                Map<Long, Double> puntajesPalabra = new HashMap<>();
+                acumular(raiz, 1.0, longitudPromedio, puntajesPalabra);
+
+                boolean esUltima = i == palabras.size() - 1;
+                if (esUltima && palabra.length() >= LONGITUD_MINIMA_PREFIJO) {
+                    for (String termino : expandirPrefijo(palabra)) {
+                        if (!termino.equals(raiz)) {
+                            acumular(termino, FACTOR_PREFIJO, longitudPromedio, puntajesPalabra);
+                        }
+                    }
+                }
+                if (aproximado && puntajesPalabra.isEmpty()) {
+                    for (Correccion correccion : corregir(palabra)) {
+                        acumular(TextoNormalizador.raiz(correccion.palabra()), correccion.similitud(),
+                                longitudPromedio, puntajesPalabra);
+                    }
+                }
+
+                if (puntajes == null) {
+                    puntajes = puntajesPalabra;
+                } else {
+                    puntajes.keySet().retainAll(puntajesPalabra.keySet());
+                    puntajes.replaceAll((id, puntaje) -> puntaje + puntajesPalabra.get(id));
+                }
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<ResultadoBusqueda> resultados = new ArrayList<>(puntajes.size());
+            puntajes.forEach((id, puntaje) -> resultados.add(new ResultadoBusqueda(id, puntaje)));
+            resultados.sort(Comparator.comparingDouble(ResultadoBusqueda::puntaje).reversed()
+                    .thenComparing(ResultadoBusqueda::productoId));
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> expandirPrefijo(String prefijo) {
+        SortedMap<String, Integer> palabras = vocabulario.subMap(prefijo, prefijo + Character.MAX_VALUE);
+        Set<String> terminos = new HashSet<>();
+        for (String palabra : palabras.keySet()) {
+            if (terminos.size() >= MAXIMO_EXPANSIONES_PREFIJO) {
+                break;
+            }
+            terminos.add(TextoNormalizador.raiz(palabra));
+        }
+        return terminos;
+    }
+
+    /**
+     * Palabras del vocabulario a distancia de edición acotada (1 para palabras
+     * cortas, 2 para el resto), de la más parecida a la menos. Solo se verifican
+     * las que comparten suficientes trigramas: cada edición altera como mucho
+     * tres de ellos. En palabras cortas una sola transposición puede romperlos
+     * todos ("jaen" y "jean" no comparten ninguno); si así no aparece nada se
+     * prueba con las palabras que empiezan por la misma letra.
+     */
+    List<Correccion> corregir(String palabra) {
+        if (palabra.length() < LONGITUD_MINIMA_CORRECCION) {
+            return List.of();
+        }
+        int distanciaMaxima = palabra.length() <= 5 ? 1 : 2;
+        Set<String> trigramasPalabra = trigramasDe(palabra);
+        int minimoCompartidos = Math.max(1, trigramasPalabra.size() - 3 * distanciaMaxima);
+
+        Map<String, Integer> compartidos = new HashMap<>();
+        for (String trigrama : trigramasPalabra) {
+            for (String candidata : trigramas.getOrDefault(trigrama, Set.of())) {
+                if (Math.abs(candidata.length() - palabra.length()) <= distanciaMaxima) {
+                    compartidos.merge(candidata, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Correccion> correcciones = new ArrayList<>();
+        compartidos.entrySet().stream()
+                .filter(entrada -> entrada.getValue() >= minimoCompartidos)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(MAXIMO_VERIFICACIONES)
+                .forEach(entrada -> verificar(palabra, entrada.getKey(), distanciaMaxima, correcciones));
+        if (correcciones.isEmpty()) {
+            String inicial = palabra.substring(0, 1);
+            vocabulario.subMap(inicial, inicial + Character.MAX_VALUE).keySet().stream()
+                    .filter(candidata -> Math.abs(candidata.length() - palabra.length()) <= distanciaMaxima)
+                    .limit(MAXIMO_VERIFICACIONES_INICIAL)
+                    .forEach(candidata -> verificar(palabra, candidata, distanciaMaxima, correcciones));
+        }
+        correcciones.sort(Comparator.comparingInt(Correccion::distancia)
+                .thenComparing(correccion -> -vocabulario.getOrDefault(correccion.palabra(), 0))
+                .thenComparing(Correccion::palabra));
+        return correcciones.size() > MAXIMO_CORRECCIONES ? correcciones.subList(0, MAXIMO_CORRECCIONES) : correcciones;
+    }
+
+    private static void verificar(String palabra, String candidata, int distanciaMaxima, List<Correccion> destino) {
+        int distancia = distanciaAcotada(palabra, candidata, distanciaMaxima);
+        if (distancia <= distanciaMaxima) {
+            double similitud = 1 - (double) distancia / Math.max(palabra.length(), candidata.length());
+            destino.add(new Correccion(candidata, distancia, similitud));
+        }
+    }
+
+    /**
+     * Distancia de edición con transposiciones (alineamiento óptimo de
+     * cadenas). Abandona en cuanto una fila entera supera {@code maxima} y en ese
+     * caso devuelve {@code maxima + 1}.
+     */
+    static int distanciaAcotada(String a, String b, int maxima) {
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maxima) {
+                return maxima + 1;
+            }
+            int[] reciclada = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = reciclada;
+        }
+        return Math.min(anterior[b.length()], maxima + 1);
+    }
+
+    /**
+     * Trigramas de la palabra con un borde a cada lado, para que el inicio y el
+     * final también cuenten ("polo" → "_po", "pol", "olo", "lo_").
+     */
+    private static Set<String> trigramasDe(String palabra) {
+        String conBordes = "_" + palabra + "_";
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + 3 <= conBordes.length(); i++) {
+            resultado.add(conBordes.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    private void acumular(String termino, double factor, double longitudPromedio, Map<Long, Double> destino) {
+        Map<Long, Integer> lista = postings.get(termino);
+        if (lista == null) {
+            return;
+        }
+        int total = documentos.size();
+        int frecuenciaDocumental = lista.size();
+        double idf = Math.log(1 + (total - frecuenciaDocumental + 0.5) / (frecuenciaDocumental + 0.5));
+
+        lista.forEach((id, frecuencia) -> {
+            int longitud = documentos.get(id).longitud();
+            double tf = frecuencia * (K1 + 1) / (frecuencia + K1 * (1 - B + B * longitud / longitudPromedio));
+            destino.merge(id, factor * idf * tf, Math::max);
+        });
+    }
+
+    private void agregar(Producto producto) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        Set<String> palabras = new HashSet<>();
+        int longitud = 0;
+        for (String palabra : TextoNormalizador.palabras(producto.getNombre())) {
+            frecuencias.merge(TextoNormalizador.raiz(palabra), PESO_NOMBRE, Integer::sum);
+            palabras.add(palabra);
+            longitud += PESO_NOMBRE;
+        }
+        for (String palabra : TextoNormalizador.palabras(producto.getDescripcion())) {
+            frecuencias.merge(TextoNormalizador.raiz(palabra), 1, Integer::sum);
+            palabras.add(palabra);
+            longitud++;
+        }
+
+        frecuencias.forEach((termino, frecuencia) ->
+                postings.computeIfAbsent(termino, t -> new HashMap<>()).put(producto.getId(), frecuencia));
+        for (String palabra : palabras) {
+            if (vocabulario.merge(palabra, 1, Integer::sum) == 1) {
+                trigramasDe(palabra).forEach(trigrama ->
+                        trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(palabra));
+            }
+        }
+        documentos.put(producto.getId(), new Documento(frecuencias.keySet(), palabras, longitud));
+        longitudTotal += longitud;
+    }
+
+    private void quitar(Long productoId) {
+        Documento documento = documentos.remove(productoId);
+        if (documento == null) {
+            return;
+        }
+        for (String termino : documento.terminos()) {
+            Map<Long, Integer> lista = postings.get(termino);
+            if (lista != null) {
+                lista.remove(productoId);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+        for (String palabra : documento.palabras()) {
+            if (vocabulario.computeIfPresent(palabra, (p, cantidad) -> cantidad > 1 ? cantidad - 1 : null) == null) {
+                for (String trigrama : trigramasDe(palabra)) {
+                    Set<String> conTrigrama = trigramas.get(trigrama);
+                    if (conTrigrama != null) {
+                        conTrigrama.remove(palabra);
+                        if (conTrigrama.isEmpty()) {
+                            trigramas.remove(trigrama);
+                        }
+                    }
+                }
+            }
+        }
+        longitudTotal -= documento.longitud();
+    }
+
+    record Correccion(String palabra, int distancia, double similitud) {
+    }
+
+    private record Documento(Collection<String> terminos, Collection<String> palabras, int longitud) {
+    }
+}
@@ -0,0 +1,385 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.dto.FacetasResponse;
+import com.yorusito.backend.product.entity.Producto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Índice de filtros en memoria para la búsqueda avanzada. Cada producto tiene un
+ * ordinal denso y cada valor filtrable (categoría, colección, con stock) un
+ * BitSet sobre esos ordinales, de modo que combinar filtros es un AND de bits.
+ * Los órdenes por precio, nombre y fecha se mantienen precalculados y se
+ * recalculan de forma perezosa en la primera lectura tras una escritura.
+ */
+@Component
+@Slf4j
+public class IndiceFiltrosProductos {
+
+    private enum Dimension {
+        NINGUNA, CATEGORIA, COLECCION, PRECIO
+    }
+
+    private static final BitSet VACIO = new BitSet();
+    private static final long SIN_VALOR = 0L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long[] limitesPrecio;
+
+    // Columnas indexadas por ordinal
+    private final Map<Long, Integer> ordinalPorId = new HashMap<>();
+    private long[] ids = new long[0];
+    private long[] precios = new long[0];
+    private long[] fechas = new long[0];
+    private long[] categorias = new long[0];
+    private long[] colecciones = new long[0];
+    private String[] nombres = new String[0];
+    private int siguienteOrdinal;
+
+    private final BitSet activos = new BitSet();
+    private final BitSet conStock = new BitSet();
+    private final Map<Long, BitSet> porCategoria = new HashMap<>();
+    private final Map<Long, BitSet> porColeccion = new HashMap<>();
+    private final Map<Long, String> nombresCategoria = new HashMap<>();
+    private final Map<Long, String> nombresColeccion = new HashMap<>();
+
+    // Ordinales activos ordenados; preciosOrdenados acompaña a ordenPorPrecio para buscar rangos
+    private int[] ordenPorPrecio = new int[0];
+    private long[] preciosOrdenados = new long[0];
+    private int[] ordenPorNombre = new int[0];
+    private int[] ordenPorFecha = new int[0];
+    private boolean ordenesVigentes = true;
+    private volatile boolean listo;
+
+    public IndiceFiltrosProductos(@Value("${catalogo.facetas.rangos-precio:50,100,200}") String rangosPrecio) {
+        this.limitesPrecio = Arrays.stream(rangosPrecio.split(","))
+                .map(String::trim)
+                .map(BigDecimal::new)
+                .mapToLong(limite -> aCentimos(limite, RoundingMode.HALF_UP))
+                .sorted()
+                .toArray();
+    }
+
+    public void reconstruir(Collection<Producto> productos) {
+        lock.writeLock().lock();
+        try {
+            ordinalPorId.clear();
+            siguienteOrdinal = 0;
+            activos.clear();
+            conStock.clear();
+            porCategoria.clear();
+            porColeccion.clear();
+            nombresCategoria.clear();
+            nombresColeccion.clear();
+            asegurarCapacidad(productos.size());
+            for (Producto producto : productos) {
+                if (Boolean.TRUE.equals(producto.getActivo())) {
+                    asignar(producto);
+                }
+            }
+            ordenesVigentes = false;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de filtros construido: {} productos, {} categorías", ordinalPorId.size(), porCategoria.size());
+    }
+
+    public void indexar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalPorId.get(producto.getId());
+            if (ordinal != null) {
+                quitar(ordinal);
+            }
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                asignar(producto);
+            }
+            ordenesVigentes = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalPorId.get(productoId);
+            if (ordinal != null) {
+                quitar(ordinal);
+                ordenesVigentes = false;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    public boolean estaActivo(Long productoId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinalPorId.get(productoId);
+            return ordinal != null && activos.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica el filtro y devuelve la página pedida según el orden indicado
+     * (nombre, precio o fechaCreacion), recorriendo el orden precalculado.
+     */
+    public ResultadoFiltro buscar(FiltroProductos filtro, String ordenarPor, String direccion, long desde, int cantidad) {
+        bloquearLecturaConOrdenesVigentes();
+        try {
+            BitSet resultado = filtrar(filtro, Dimension.NINGUNA);
+            int total = resultado.cardinality();
+
+            int[] orden = switch (ordenarPor == null ? "" : ordenarPor) {
+                case "precio" -> ordenPorPrecio;
+                case "fecha", "fechaCreacion" -> ordenPorFecha;
+                default -> ordenPorNombre;
+            };
+            boolean descendente = "desc".equalsIgnoreCase(direccion);
+
+            List<Long> pagina = new ArrayList<>(cantidad);
+            long vistos = 0;
+            for (int i = 0; i < orden.length && pagina.size() < cantidad; i++) {
+                int ordinal = orden[descendente ? orden.length - 1 - i : i];
+                if (resultado.get(ordinal) && vistos++ >= desde) {
+                    pagina.add(ids[ordinal]);
+                }
+            }
+            return new ResultadoFiltro(pagina, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Conteos por categoría, colección y rango de precio. Cada faceta se cuenta
+     * aplicando todos los filtros salvo el de su propia dimensión, para que el
+     * cliente vea cuántos productos obtendría al cambiar ese filtro.
+     */
+    public FacetasResponse facetas(FiltroProductos filtro) {
+        bloquearLecturaConOrdenesVigentes();
+        try {
+            BitSet resultado = filtrar(filtro, Dimension.NINGUNA);
+            BitSet resultadoConStock = (BitSet) resultado.clone();
+            resultadoConStock.and(conStock);
+
+            Map<Long, Integer> conteoCategorias = contar(filtrar(filtro, Dimension.CATEGORIA), categorias);
+            Map<Long, Integer> conteoColecciones = contar(filtrar(filtro, Dimension.COLECCION), colecciones);
+
+            int[] conteoRangos = new int[limitesPrecio.length + 1];
+            BitSet basePrecio = filtrar(filtro, Dimension.PRECIO);
+            for (int o = basePrecio.nextSetBit(0); o >= 0; o = basePrecio.nextSetBit(o + 1)) {
+                int rango = Arrays.binarySearch(limitesPrecio, precios[o]);
+                conteoRangos[rango >= 0 ? rango + 1 : -rango - 1]++;
+            }
+
+            List<FacetasResponse.FacetaRangoPrecio> rangos = new ArrayList<>();
+            for (int i = 0; i < conteoRangos.length; i++) {
+                rangos.add(FacetasResponse.FacetaRangoPrecio.builder()
+                        .desde(i == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(limitesPrecio[i - 1], 2))
+                        .hasta(i < limitesPrecio.length ? BigDecimal.valueOf(limitesPrecio[i], 2) : null)
+                        .cantidad(conteoRangos[i])
+                        .build());
+            }
+
+            return FacetasResponse.builder()
+                    .total(resultado.cardinality())
+                    .enStock(resultadoConStock.cardinality())
+                    .categorias(aFacetas(conteoCategorias, nombresCategoria))
+                    .colecciones(aFacetas(conteoColecciones, nombresColeccion))
+                    .rangosPrecio(rangos)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet filtrar(FiltroProductos filtro, Dimension excluida) {
+        BitSet resultado = (BitSet) activos.clone();
+
+        if (filtro.candidatos() != null) {
+            BitSet candidatos = new BitSet();
+            for (Long id : filtro.candidatos()) {
+                Integer ordinal = ordinalPorId.get(id);
+                if (ordinal != null) {
+                    candidatos.set(ordinal);
+                }
+            }
+            resultado.and(candidatos);
+        }
+        if (filtro.categoriaId() != null && excluida != Dimension.CATEGORIA) {
+            resultado.and(porCategoria.getOrDefault(filtro.categoriaId(), VACIO));
+        }
+        if (filtro.coleccionId() != null && excluida != Dimension.COLECCION) {
+            resultado.and(porColeccion.getOrDefault(filtro.coleccionId(), VACIO));
+        }
+        if (Boolean.TRUE.equals(filtro.enStock())) {
+            resultado.and(conStock);
+        }
+        if ((filtro.precioMin() != null || filtro.precioMax() != null) && excluida != Dimension.PRECIO) {
+            resultado.and(rangoPrecio(filtro.precioMin(), filtro.precioMax()));
+        }
+        return resultado;
+    }
+
+    private BitSet rangoPrecio(BigDecimal precioMin, BigDecimal precioMax) {
+        long minimo = precioMin != null ? aCentimos(precioMin, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maximo = precioMax != null ? aCentimos(precioMax, RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        BitSet rango = new BitSet();
+        for (int i = primeraPosicionDesde(minimo); i < preciosOrdenados.length && preciosOrdenados[i] <= maximo; i++) {
+            rango.set(ordenPorPrecio[i]);
+        }
+        return rango;
+    }
+
+    private int primeraPosicionDesde(long precio) {
+        int bajo = 0;
+        int alto = preciosOrdenados.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (preciosOrdenados[medio] < precio) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private Map<Long, Integer> contar(BitSet base, long[] columna) {
+        Map<Long, Integer> conteos = new HashMap<>();
+        for (int o = base.nextSetBit(0); o >= 0; o = base.nextSetBit(o + 1)) {
+            if (columna[o] != SIN_VALOR) {
+                conteos.merge(columna[o], 1, Integer::sum);
+            }
+        }
+        return conteos;
+    }
+
+    private List<FacetasResponse.FacetaValor> aFacetas(Map<Long, Integer> conteos, Map<Long, String> nombresPorId) {
+        return conteos.entrySet().stream()
+                .map(entrada -> FacetasResponse.FacetaValor.builder()
+                        .id(entrada.getKey())
+                        .nombre(nombresPorId.get(entrada.getKey()))
+                        .cantidad(entrada.getValue())
+                        .build())
+                .sorted(Comparator.comparing(FacetasResponse.FacetaValor::getCantidad).reversed()
+                        .thenComparing(FacetasResponse.FacetaValor::getId))
+                .toList();
+    }
+
+    /**
+     * Toma el bloqueo de lectura con los órdenes al día; si una escritura los dejó
+     * desactualizados, los recalcula antes bajo el bloqueo de escritura.
+     */
+    private void bloquearLecturaConOrdenesVigentes() {
+        while (true) {
+            lock.readLock().lock();
+            if (ordenesVigentes) {
+                return;
+            }
+            lock.readLock().unlock();
+            recalcularOrdenes();
+        }
+    }
+
+    private void recalcularOrdenes() {
+        lock.writeLock().lock();
+        try {
+            if (ordenesVigentes) {
+                return;
+            }
+            int[] ordinales = activos.stream().toArray();
+            ordenPorPrecio = ordenar(ordinales, Comparator.<Integer>comparingLong(o -> precios[o]).thenComparingLong(o -> ids[o]));
+            ordenPorNombre = ordenar(ordinales, Comparator.<Integer, String>comparing(o -> nombres[o]).thenComparingLong(o -> ids[o]));
+            ordenPorFecha = ordenar(ordinales, Comparator.<Integer>comparingLong(o -> fechas[o]).thenComparingLong(o -> ids[o]));
+            preciosOrdenados = Arrays.stream(ordenPorPrecio).mapToLong(o -> precios[o]).toArray();
+            ordenesVigentes = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int[] ordenar(int[] ordinales, Comparator<Integer> comparador) {
+        return IntStream.of(ordinales).boxed().sorted(comparador).mapToInt(Integer::intValue).toArray();
+    }
+
+    private void asignar(Producto producto) {
+        int ordinal = ordinalPorId.computeIfAbsent(producto.getId(), id -> siguienteOrdinal++);
+        asegurarCapacidad(ordinal + 1);
+
+        ids[ordinal] = producto.getId();
+        precios[ordinal] = aCentimos(producto.getPrecio(), RoundingMode.HALF_UP);
+        fechas[ordinal] = producto.getFechaCreacion() != null
+                ? producto.getFechaCreacion().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0L;
+        nombres[ordinal] = TextoNormalizador.plegar(producto.getNombre());
+        categorias[ordinal] = producto.getCategoria().getId();
+        colecciones[ordinal] = producto.getColeccion() != null ? producto.getColeccion().getId() : SIN_VALOR;
+
+        activos.set(ordinal);
+        if (producto.getStock() != null && producto.getStock() > 0) {
+            conStock.set(ordinal);
+        }
+        porCategoria.computeIfAbsent(categorias[ordinal], id -> new BitSet()).set(ordinal);
+        nombresCategoria.put(categorias[ordinal], producto.getCategoria().getNombre());
+        if (producto.getColeccion() != null) {
+            porColeccion.computeIfAbsent(colecciones[ordinal], id -> new BitSet()).set(ordinal);
+            nombresColeccion.put(colecciones[ordinal], producto.getColeccion().getNombre());
+        }
+    }
+
+    private void quitar(int ordinal) {
+        activos.clear(ordinal);
+        conStock.clear(ordinal);
+        BitSet categoria = porCategoria.get(categorias[ordinal]);
+        if (categoria != null) {
+            categoria.clear(ordinal);
+        }
+        BitSet coleccion = porColeccion.get(colecciones[ordinal]);
+        if (coleccion != null) {
+            coleccion.clear(ordinal);
+        }
+    }
+
+    private void asegurarCapacidad(int capacidad) {
+        if (capacidad <= ids.length) {
+            return;
+        }
+        int nueva = Math.max(capacidad, Math.max(16, ids.length * 2));
+        ids = Arrays.copyOf(ids, nueva);
+        precios = Arrays.copyOf(precios, nueva);
+        fechas = Arrays.copyOf(fechas, nueva);
+        categorias = Arrays.copyOf(categorias, nueva);
+        colecciones = Arrays.copyOf(colecciones, nueva);
+        nombres = Arrays.copyOf(nombres, nueva);
+    }
+
+    private static long aCentimos(BigDecimal precio, RoundingMode redondeo) {
+        return precio.setScale(2, redondeo).unscaledValue().longValueExact();
+    }
+}
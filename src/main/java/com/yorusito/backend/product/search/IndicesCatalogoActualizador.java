@@ -0,0 +1,92 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.repository.CategoriaRepository;
+import com.yorusito.backend.product.repository.ColeccionRepository;
+import com.yorusito.backend.product.repository.ProductoRepository;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los índices en memoria y el snapshot publicado del catálogo: los
+ * construye al arrancar y aplica cada cambio publicado por los servicios una vez
+ * confirmada la transacción.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndicesCatalogoActualizador {
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ColeccionRepository coleccionRepository;
+    private final CatalogoPublicado catalogoPublicado;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final IndiceFiltrosProductos indiceFiltros;
+    private final IndiceAutocompletado indiceAutocompletado;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void construirIndices() {
+        reconstruir();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        if (evento.esCompleto()) {
+            reconstruir();
+            return;
+        }
+
+        Map<Long, Producto> productos = productoRepository.findConRelacionesByIdIn(evento.productoIds())
+                .stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+        for (Long productoId : evento.productoIds()) {
+            Producto producto = productos.get(productoId);
+            if (producto == null) {
+                indiceBusqueda.eliminar(productoId);
+                indiceFiltros.eliminar(productoId);
+                indiceAutocompletado.eliminar(productoId);
+            } else {
+                indiceBusqueda.indexar(producto);
+                indiceFiltros.indexar(producto);
+                indiceAutocompletado.indexar(producto);
+            }
+        }
+        // El snapshot se publica al final: su versión indica que los índices ya están al día
+        catalogoPublicado.actualizarProductos(productos.values(), evento.productoIds().stream()
+                .filter(productoId -> !productos.containsKey(productoId))
+                .collect(Collectors.toSet()));
+        log.debug("Índices y snapshot del catálogo actualizados para {} productos", evento.productoIds().size());
+    }
+
+    private void reconstruir() {
+        List<Producto> productos = productoRepository.findAllConRelaciones();
+        List<Categoria> categorias = categoriaRepository.findAll();
+        List<Coleccion> colecciones = coleccionRepository.findAll();
+        List<Producto> activos = productos.stream()
+                .filter(producto -> Boolean.TRUE.equals(producto.getActivo()))
+                .toList();
+        indiceBusqueda.reconstruir(activos);
+        indiceFiltros.reconstruir(activos);
+        indiceAutocompletado.reconstruir(activos, categorias, colecciones);
+        catalogoPublicado.reconstruir(productos, categorias, colecciones);
+    }
+}
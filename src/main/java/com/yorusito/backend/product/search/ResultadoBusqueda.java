@@ -0,0 +1,4 @@
+package com.yorusito.backend.product.search;
+
+public record ResultadoBusqueda(Long productoId, double puntaje) {
+}
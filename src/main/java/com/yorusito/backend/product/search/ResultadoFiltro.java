@@ -0,0 +1,9 @@
+package com.yorusito.backend.product.search;
+
+import java.util.List;
+
+/**
+ * Ids de la página pedida, en orden, junto con el total de productos que cumplen el filtro.
+ */
+public record ResultadoFiltro(List<Long> productoIds, int total) {
+}
@@ -0,0 +1,93 @@
+package com.yorusito.backend.product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte texto en términos de búsqueda: minúsculas, sin tildes, sin palabras
+ * vacías y con un stemming ligero para español (plurales y género).
+ */
+public final class TextoNormalizador {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los",
+            "o", "para", "por", "que", "se", "sin", "su", "sus", "un", "una", "y");
+
+    private TextoNormalizador() {
+    }
+
+    /**
+     * Minúsculas y sin tildes ("Pantalón" → "pantalon"). La ñ se conserva como n.
+     */
+    public static String plegar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("");
+    }
+
+    /**
+     * Texto plegado con las palabras separadas por un único espacio
+     * ("Polo  Básico-Blanco" → "polo basico blanco").
+     */
+    public static String frase(String texto) {
+        return SEPARADORES.matcher(plegar(texto)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Palabras plegadas, sin palabras vacías y sin stemming.
+     */
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(plegar(texto))) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Términos indexables: palabras plegadas y reducidas a su raíz.
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String palabra : palabras(texto)) {
+            terminos.add(raiz(palabra));
+        }
+        return terminos;
+    }
+
+    /**
+     * Stemming ligero: quita plurales y la vocal final de género, de modo que
+     * "poleras", "polera" y "polero" comparten la raíz "poler".
+     */
+    public static String raiz(String palabra) {
+        String raiz = palabra;
+        if (raiz.length() < 4 || Character.isDigit(raiz.charAt(raiz.length() - 1))) {
+            return raiz;
+        }
+        if (raiz.endsWith("eses")) {
+            raiz = raiz.substring(0, raiz.length() - 2);
+        } else if (raiz.endsWith("ces")) {
+            raiz = raiz.substring(0, raiz.length() - 3) + "z";
+        } else if (raiz.endsWith("s")) {
+            raiz = raiz.substring(0, raiz.length() - 1);
+        }
+        if (raiz.length() >= 4) {
+            char ultima = raiz.charAt(raiz.length() - 1);
+            if (ultima == 'a' || ultima == 'o' || ultima == 'e') {
+                raiz = raiz.substring(0, raiz.length() - 1);
+            }
+        }
+        return raiz;
+    }
+}
@@ -0,0 +1,145 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.ActualizacionMasivaRequest;
+import com.yorusito.backend.product.dto.ActualizacionMasivaRequest.Item;
+import com.yorusito.backend.product.dto.ActualizacionMasivaResponse;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.event.StockAjustadoEvent;
+import com.yorusito.backend.product.event.StockAjustadoEvent.CambioStock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Actualización masiva de precio y stock. Los ítems se procesan en lotes, cada
+ * uno en su propia transacción: se bloquean las filas del lote, se aplica un
+ * batch de UPDATE y se publican un único {@link CatalogoModificadoEvent} y un
+ * único {@link StockAjustadoEvent} por lote.
+ */
+@Service
+@Slf4j
+public class ActualizacionMasivaService {
+
+    private static final String BLOQUEAR_PRODUCTOS =
+            "SELECT id, stock FROM productos WHERE id IN (:ids) FOR UPDATE";
+    private static final String ACTUALIZAR_PRODUCTO =
+            "UPDATE productos SET precio = COALESCE(?, precio), stock = COALESCE(?, stock), " +
+            "fecha_actualizacion = ? WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanioLote;
+
+    public ActualizacionMasivaService(NamedParameterJdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${catalogo.actualizacion-masiva.tamanio-lote:500}") int tamanioLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tamanioLote = tamanioLote;
+    }
+
+    public ActualizacionMasivaResponse actualizar(ActualizacionMasivaRequest request, String usuario) {
+        long inicio = System.nanoTime();
+
+        // Si un producto aparece varias veces se aplica su última aparición
+        Map<Long, Item> porId = new LinkedHashMap<>();
+        request.getItems().forEach(item -> porId.put(item.getId(), item));
+        List<Item> items = new ArrayList<>(porId.values());
+
+        int actualizados = 0;
+        int movimientos = 0;
+        int lotes = 0;
+        List<Long> noEncontrados = new ArrayList<>();
+        for (int desde = 0; desde < items.size(); desde += tamanioLote) {
+            List<Item> lote = items.subList(desde, Math.min(desde + tamanioLote, items.size()));
+            ResultadoLote resultado = transactionTemplate.execute(estado ->
+                    aplicarLote(lote, request.getMotivo(), usuario));
+            actualizados += resultado.actualizados();
+            movimientos += resultado.movimientos();
+            noEncontrados.addAll(resultado.noEncontrados());
+            lotes++;
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Actualización masiva por {}: {} productos actualizados en {} lotes, {} movimientos de stock, {} ms",
+                usuario, actualizados, lotes, movimientos, duracionMs);
+
+        return ActualizacionMasivaResponse.builder()
+                .solicitados(request.getItems().size())
+                .actualizados(actualizados)
+                .movimientosStock(movimientos)
+                .lotes(lotes)
+                .duracionMs(duracionMs)
+                .noEncontrados(noEncontrados)
+                .build();
+    }
+
+    private ResultadoLote aplicarLote(List<Item> lote, String motivo, String usuario) {
+        Map<Long, Integer> stockAnterior = new HashMap<>();
+        jdbcTemplate.query(BLOQUEAR_PRODUCTOS,
+                Map.of("ids", lote.stream().map(Item::getId).toList()),
+                rs -> {
+                    stockAnterior.put(rs.getLong("id"), rs.getInt("stock"));
+                });
+
+        List<Item> existentes = new ArrayList<>(lote.size());
+        List<Long> noEncontrados = new ArrayList<>();
+        for (Item item : lote) {
+            if (stockAnterior.containsKey(item.getId())) {
+                existentes.add(item);
+            } else {
+                noEncontrados.add(item.getId());
+            }
+        }
+        if (existentes.isEmpty()) {
+            return new ResultadoLote(0, 0, noEncontrados);
+        }
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(ACTUALIZAR_PRODUCTO, existentes, existentes.size(), (ps, item) -> {
+            if (item.getPrecio() != null) {
+                ps.setBigDecimal(1, item.getPrecio());
+            } else {
+                ps.setNull(1, Types.DECIMAL);
+            }
+            if (item.getStock() != null) {
+                ps.setInt(2, item.getStock());
+            } else {
+                ps.setNull(2, Types.INTEGER);
+            }
+            ps.setTimestamp(3, ahora);
+            ps.setLong(4, item.getId());
+        });
+
+        List<CambioStock> cambios = existentes.stream()
+                .filter(item -> item.getStock() != null && !item.getStock().equals(stockAnterior.get(item.getId())))
+                .map(item -> new CambioStock(item.getId(), stockAnterior.get(item.getId()), item.getStock()))
+                .collect(Collectors.toList());
+        if (!cambios.isEmpty()) {
+            eventPublisher.publishEvent(new StockAjustadoEvent(cambios, motivo, usuario));
+        }
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProductos(
+                existentes.stream().map(Item::getId).toList()));
+
+        return new ResultadoLote(existentes.size(), cambios.size(), noEncontrados);
+    }
+
+    private record ResultadoLote(int actualizados, int movimientos, List<Long> noEncontrados) {
+    }
+}
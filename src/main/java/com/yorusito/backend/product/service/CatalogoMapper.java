@@ -0,0 +1,59 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.CategoriaResponse;
+import com.yorusito.backend.product.dto.ColeccionResponse;
+import com.yorusito.backend.product.dto.ProductoResponse;
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.entity.Producto;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversión de entidades del catálogo a DTOs sin tocar colecciones perezosas,
+ * compartida por los servicios y por el snapshot del catálogo.
+ */
+@Component
+public class CatalogoMapper {
+
+    public ProductoResponse aResponse(Producto producto) {
+        return ProductoResponse.builder()
+                .id(producto.getId())
+                .nombre(producto.getNombre())
+                .descripcion(producto.getDescripcion())
+                .precio(producto.getPrecio())
+                .stock(producto.getStock())
+                .imagenUrl(producto.getImagenUrl())
+                .categoria(aResponse(producto.getCategoria()))
+                .coleccion(producto.getColeccion() != null ? aResponse(producto.getColeccion()) : null)
+                .activo(producto.getActivo())
+                .fechaCreacion(producto.getFechaCreacion())
+                .fechaActualizacion(producto.getFechaActualizacion())
+                .build();
+    }
+
+    public CategoriaResponse aResponse(Categoria categoria) {
+        return CategoriaResponse.builder()
+                .id(categoria.getId())
+                .nombre(categoria.getNombre())
+                .descripcion(categoria.getDescripcion())
+                .fechaCreacion(categoria.getFechaCreacion())
+                .build();
+    }
+
+    public ColeccionResponse aResponse(Coleccion coleccion) {
+        return ColeccionResponse.builder()
+                .id(coleccion.getId())
+                .nombre(coleccion.getNombre())
+                .descripcion(coleccion.getDescripcion())
+                .imagenUrl(coleccion.getImagenUrl())
+                .temporada(coleccion.getTemporada())
+                .colorTematico(coleccion.getColorTematico())
+                .destacada(coleccion.getDestacada())
+                .activa(coleccion.getActiva())
+                .fechaInicio(coleccion.getFechaInicio())
+                .fechaFin(coleccion.getFechaFin())
+                .fechaCreacion(coleccion.getFechaCreacion())
+                .fechaActualizacion(coleccion.getFechaActualizacion())
+                .build();
+    }
+}
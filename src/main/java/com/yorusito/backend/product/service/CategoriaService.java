@@ -2,12 +2,21 @@ package com.yorusito.backend.product.service;
 
 import com.yorusito.backend.product.dto.CategoriaRequest;
 import com.yorusito.backend.product.dto.CategoriaResponse;
+import com.yorusito.backend.product.dto.NavegacionResponse;
+import com.yorusito.backend.product.dto.NavegacionResponse.CategoriaNavegacion;
 import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
 import com.yorusito.backend.product.repository.CategoriaRepository;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,15 +24,55 @@ import java.util.stream.Collectors;
 public class CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoPublicado catalogoPublicado;
+    private final ColeccionService coleccionService;
 
     public List<CategoriaResponse> obtenerTodas() {
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().categorias();
+        }
         return categoriaRepository.findAll()
                 .stream()
                 .map(this::convertirAResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Modelo de navegación de la tienda: categorías con sus productos activos y
+     * en stock, y colecciones destacadas. Sale ya armado del snapshot; mientras
+     * este no esté listo se calcula con una consulta agrupada.
+     */
+    public NavegacionResponse obtenerNavegacion() {
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().navegacion();
+        }
+        Map<Long, CategoriaRepository.ConteoCategoria> conteos = categoriaRepository.contarProductosActivos()
+                .stream()
+                .collect(Collectors.toMap(CategoriaRepository.ConteoCategoria::getCategoriaId, Function.identity()));
+        List<CategoriaNavegacion> categorias = categoriaRepository.findAll(Sort.by("id"))
+                .stream()
+                .map(categoria -> {
+                    CategoriaRepository.ConteoCategoria conteo = conteos.get(categoria.getId());
+                    return CategoriaNavegacion.builder()
+                            .id(categoria.getId())
+                            .nombre(categoria.getNombre())
+                            .productosActivos(conteo != null ? conteo.getActivos().intValue() : 0)
+                            .productosEnStock(conteo != null ? conteo.getEnStock().intValue() : 0)
+                            .build();
+                })
+                .collect(Collectors.toList());
+        return NavegacionResponse.builder()
+                .categorias(categorias)
+                .coleccionesDestacadas(coleccionService.listarColeccionesDestacadas())
+                .build();
+    }
+
     public CategoriaResponse obtenerPorId(Long id) {
+        Optional<CategoriaResponse> publicada = catalogoPublicado.actual().categoria(id);
+        if (publicada.isPresent()) {
+            return publicada.get();
+        }
         Categoria categoria = categoriaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
         return convertirAResponse(categoria);
@@ -40,6 +89,7 @@ public class CategoriaService {
                 .build();
 
         categoria = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         return convertirAResponse(categoria);
     }
 
@@ -56,6 +106,7 @@ public class CategoriaService {
         categoria.setDescripcion(request.getDescripcion());
 
         categoria = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         return convertirAResponse(categoria);
     }
 
@@ -64,6 +115,7 @@ public class CategoriaService {
             throw new RuntimeException("Categoría no encontrada");
         }
         categoriaRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
     }
 
     private CategoriaResponse convertirAResponse(Categoria categoria) {
@@ -3,16 +3,23 @@ package com.yorusito.backend.product.service;
 import com.yorusito.backend.product.dto.ColeccionRequest;
 import com.yorusito.backend.product.dto.ColeccionResponse;
 import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
 import com.yorusito.backend.product.repository.ColeccionRepository;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import com.yorusito.backend.product.vigencia.VigenciaColecciones;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,16 +29,19 @@ import java.util.stream.Collectors;
 public class ColeccionService {
     
     private final ColeccionRepository coleccionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoPublicado catalogoPublicado;
+    private final VigenciaColecciones vigenciaColecciones;
     
     /**
      * Listar colecciones activas
      */
     @Transactional(readOnly = true)
     public List<ColeccionResponse> listarColeccionesActivas() {
-        List<Coleccion> colecciones = coleccionRepository.findByActivaTrueOrderByFechaCreacionDesc();
-        return colecciones.stream()
-                .map(this::mapearAColeccionResponse)
-                .collect(Collectors.toList());
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().coleccionesActivas();
+        }
+        return mapearConConteos(coleccionRepository.findByActivaTrueOrderByFechaCreacionDesc());
     }
     
     /**
@@ -39,10 +49,10 @@ public class ColeccionService {
      */
     @Transactional(readOnly = true)
     public List<ColeccionResponse> listarColeccionesDestacadas() {
-        List<Coleccion> colecciones = coleccionRepository.findByDestacadaTrueAndActivaTrueOrderByFechaCreacionDesc();
-        return colecciones.stream()
-                .map(this::mapearAColeccionResponse)
-                .collect(Collectors.toList());
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().coleccionesDestacadas();
+        }
+        return mapearConConteos(coleccionRepository.findByDestacadaTrueAndActivaTrueOrderByFechaCreacionDesc());
     }
     
     /**
@@ -51,7 +61,7 @@ public class ColeccionService {
     @Transactional(readOnly = true)
     public Page<ColeccionResponse> listarTodasPaginadas(Pageable pageable) {
         Page<Coleccion> colecciones = coleccionRepository.findAll(pageable);
-        return colecciones.map(this::mapearAColeccionResponse);
+        return new PageImpl<>(mapearConConteos(colecciones.getContent()), pageable, colecciones.getTotalElements());
     }
     
     /**
@@ -59,9 +69,13 @@ public class ColeccionService {
      */
     @Transactional(readOnly = true)
     public ColeccionResponse obtenerPorId(Long id) {
+        Optional<ColeccionResponse> publicada = catalogoPublicado.actual().coleccion(id);
+        if (publicada.isPresent()) {
+            return publicada.get();
+        }
         Coleccion coleccion = coleccionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Colección no encontrada"));
-        return mapearAColeccionResponse(coleccion);
+        return mapearAColeccionResponse(coleccion, coleccionRepository.contarProductos(id));
     }
     
     /**
@@ -88,9 +102,11 @@ public class ColeccionService {
                 .build();
         
         coleccion = coleccionRepository.save(coleccion);
+        vigenciaColecciones.sincronizar(coleccion);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         log.info("Colección creada: {}", coleccion.getNombre());
         
-        return mapearAColeccionResponse(coleccion);
+        return mapearAColeccionResponse(coleccion, 0);
     }
     
     /**
@@ -115,11 +131,13 @@ public class ColeccionService {
         coleccion.setFechaInicio(request.getFechaInicio());
         coleccion.setFechaFin(request.getFechaFin());
         coleccion.setFechaActualizacion(LocalDateTime.now());
+        vigenciaColecciones.sincronizar(coleccion);
         
         coleccion = coleccionRepository.save(coleccion);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         log.info("Colección actualizada: {}", coleccion.getNombre());
         
-        return mapearAColeccionResponse(coleccion);
+        return mapearAColeccionResponse(coleccion, coleccionRepository.contarProductos(coleccion.getId()));
     }
     
     /**
@@ -130,11 +148,13 @@ public class ColeccionService {
                 .orElseThrow(() -> new RuntimeException("Colección no encontrada"));
         
         // Verificar si tiene productos asociados
-        if (coleccion.getProductos() != null && !coleccion.getProductos().isEmpty()) {
+        if (coleccionRepository.contarProductos(id) > 0) {
             throw new RuntimeException("No se puede eliminar la colección porque tiene productos asociados");
         }
         
         coleccionRepository.delete(coleccion);
+        vigenciaColecciones.cancelar(id);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         log.info("Colección eliminada: {}", coleccion.getNombre());
     }
     
@@ -149,9 +169,10 @@ public class ColeccionService {
         coleccion.setFechaActualizacion(LocalDateTime.now());
         
         coleccion = coleccionRepository.save(coleccion);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         log.info("Colección {} {}", coleccion.getNombre(), coleccion.getActiva() ? "activada" : "desactivada");
         
-        return mapearAColeccionResponse(coleccion);
+        return mapearAColeccionResponse(coleccion, coleccionRepository.contarProductos(coleccion.getId()));
     }
     
     /**
@@ -165,15 +186,34 @@ public class ColeccionService {
         coleccion.setFechaActualizacion(LocalDateTime.now());
         
         coleccion = coleccionRepository.save(coleccion);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
         log.info("Colección {} {}", coleccion.getNombre(), coleccion.getDestacada() ? "destacada" : "no destacada");
         
-        return mapearAColeccionResponse(coleccion);
+        return mapearAColeccionResponse(coleccion, coleccionRepository.contarProductos(coleccion.getId()));
     }
     
+    /**
+     * Mapear una lista de colecciones obteniendo la cantidad de productos de
+     * todas con una única consulta agrupada, sin inicializar sus productos
+     */
+    private List<ColeccionResponse> mapearConConteos(List<Coleccion> colecciones) {
+        if (colecciones.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> cantidades = coleccionRepository.contarProductosPorColeccion(
+                        colecciones.stream().map(Coleccion::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ColeccionRepository.ConteoProductos::getColeccionId,
+                        ColeccionRepository.ConteoProductos::getCantidad));
+        return colecciones.stream()
+                .map(coleccion -> mapearAColeccionResponse(coleccion, cantidades.getOrDefault(coleccion.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Mapear entidad a DTO
      */
-    private ColeccionResponse mapearAColeccionResponse(Coleccion coleccion) {
+    private ColeccionResponse mapearAColeccionResponse(Coleccion coleccion, long cantidadProductos) {
         return ColeccionResponse.builder()
                 .id(coleccion.getId())
                 .nombre(coleccion.getNombre())
@@ -187,7 +227,7 @@ public class ColeccionService {
                 .fechaFin(coleccion.getFechaFin())
                 .fechaCreacion(coleccion.getFechaCreacion())
                 .fechaActualizacion(coleccion.getFechaActualizacion())
-                .cantidadProductos(coleccion.getProductos() != null ? coleccion.getProductos().size() : 0)
+                .cantidadProductos((int) cantidadProductos)
                 .build();
     }
 }
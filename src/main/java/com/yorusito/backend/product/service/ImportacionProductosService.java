@@ -0,0 +1,317 @@
+package com.yorusito.backend.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yorusito.backend.product.dto.ImportacionResultadoResponse;
+import com.yorusito.backend.product.dto.ProductoRequest;
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.repository.CategoriaRepository;
+import com.yorusito.backend.product.repository.ColeccionRepository;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de productos. El archivo se lee como stream, cada fila se
+ * valida con las mismas reglas que {@link ProductoRequest} y las filas válidas
+ * se insertan por lotes con un batch JDBC en su propia transacción, resolviendo
+ * categorías y colecciones con una consulta por lote.
+ */
+@Service
+@Slf4j
+public class ImportacionProductosService {
+
+    public enum FormatoImportacion { CSV, NDJSON }
+
+    private static final String INSERTAR_PRODUCTO =
+            "INSERT INTO productos (nombre, descripcion, precio, stock, imagen_url, categoria_id, coleccion_id, " +
+            "activo, fecha_creacion, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?)";
+    private static final List<String> COLUMNAS_OBLIGATORIAS = List.of("nombre", "precio", "stock", "categoria_id");
+    private static final int MAXIMO_ERRORES_REPORTADOS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoriaRepository categoriaRepository;
+    private final ColeccionRepository coleccionRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanioLote;
+
+    public ImportacionProductosService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       CategoriaRepository categoriaRepository,
+                                       ColeccionRepository coleccionRepository,
+                                       Validator validator,
+                                       ObjectMapper objectMapper,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${catalogo.importacion.tamanio-lote:1000}") int tamanioLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoriaRepository = categoriaRepository;
+        this.coleccionRepository = coleccionRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.tamanioLote = tamanioLote;
+    }
+
+    public ImportacionResultadoResponse importar(InputStream entrada, FormatoImportacion formato) {
+        long inicio = System.nanoTime();
+        Importacion importacion = new Importacion();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            if (formato == FormatoImportacion.CSV) {
+                leerCsv(reader, importacion);
+            } else {
+                leerNdjson(reader, importacion);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("No se pudo leer el archivo de importación", e);
+        } finally {
+            importacion.cerrar();
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Importación de productos: {} filas, {} importadas, {} con error en {} ms",
+                importacion.procesadas, importacion.importadas, importacion.fallidas, duracionMs);
+
+        return ImportacionResultadoResponse.builder()
+                .procesadas(importacion.procesadas)
+                .importadas(importacion.importadas)
+                .fallidas(importacion.fallidas)
+                .duracionMs(duracionMs)
+                .errores(importacion.errores)
+                .build();
+    }
+
+    private void leerCsv(BufferedReader reader, Importacion importacion) throws IOException {
+        LectorCsv lector = new LectorCsv(reader);
+        List<String> cabecera = lector.siguiente();
+        if (cabecera == null) {
+            throw new BadRequestException("El archivo CSV está vacío");
+        }
+
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(cabecera.get(i).replace("\uFEFF", "").trim().toLowerCase(), i);
+        }
+        List<String> faltantes = COLUMNAS_OBLIGATORIAS.stream()
+                .filter(columna -> !columnas.containsKey(columna))
+                .toList();
+        if (!faltantes.isEmpty()) {
+            throw new BadRequestException("Faltan columnas obligatorias en el CSV: " + String.join(", ", faltantes));
+        }
+
+        List<String> campos;
+        int fila = 0;
+        while ((campos = lector.siguiente()) != null) {
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            fila++;
+            try {
+                importacion.agregar(fila, ProductoRequest.builder()
+                        .nombre(valor(campos, columnas, "nombre"))
+                        .descripcion(valor(campos, columnas, "descripcion"))
+                        .precio(decimal(campos, columnas, "precio"))
+                        .stock(entero(campos, columnas, "stock"))
+                        .imagenUrl(valor(campos, columnas, "imagen_url"))
+                        .categoriaId(largo(campos, columnas, "categoria_id"))
+                        .coleccionId(largo(campos, columnas, "coleccion_id"))
+                        .build());
+            } catch (NumberFormatException e) {
+                importacion.error(fila, e.getMessage());
+            }
+        }
+    }
+
+    private void leerNdjson(BufferedReader reader, Importacion importacion) throws IOException {
+        String linea;
+        int fila = 0;
+        while ((linea = reader.readLine()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            fila++;
+            try {
+                importacion.agregar(fila, objectMapper.readValue(linea, ProductoRequest.class));
+            } catch (JsonProcessingException e) {
+                importacion.error(fila, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Inserta las filas del lote cuyas categoría y colección existen. Devuelve
+     * cuántas se insertaron; las demás quedan registradas como errores.
+     */
+    private int guardarLote(List<FilaImportacion> lote, Importacion importacion) {
+        Set<Long> categorias = categoriaRepository.findAllById(lote.stream()
+                        .map(fila -> fila.request().getCategoriaId())
+                        .collect(Collectors.toSet()))
+                .stream().map(Categoria::getId).collect(Collectors.toSet());
+        Set<Long> colecciones = coleccionRepository.findAllById(lote.stream()
+                        .map(fila -> fila.request().getColeccionId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream().map(Coleccion::getId).collect(Collectors.toSet());
+
+        List<FilaImportacion> validos = new ArrayList<>(lote.size());
+        for (FilaImportacion fila : lote) {
+            ProductoRequest request = fila.request();
+            if (!categorias.contains(request.getCategoriaId())) {
+                importacion.registrarError(fila.numero(), "Categoría no encontrada: " + request.getCategoriaId());
+            } else if (request.getColeccionId() != null && !colecciones.contains(request.getColeccionId())) {
+                importacion.registrarError(fila.numero(), "Colección no encontrada: " + request.getColeccionId());
+            } else {
+                validos.add(fila);
+            }
+        }
+        if (validos.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(estado ->
+                    jdbcTemplate.batchUpdate(INSERTAR_PRODUCTO, validos, validos.size(), (ps, fila) -> {
+                        ProductoRequest request = fila.request();
+                        ps.setString(1, request.getNombre());
+                        ps.setString(2, request.getDescripcion());
+                        ps.setBigDecimal(3, request.getPrecio());
+                        ps.setInt(4, request.getStock());
+                        ps.setString(5, request.getImagenUrl());
+                        ps.setLong(6, request.getCategoriaId());
+                        if (request.getColeccionId() != null) {
+                            ps.setLong(7, request.getColeccionId());
+                        } else {
+                            ps.setNull(7, Types.BIGINT);
+                        }
+                        ps.setTimestamp(8, ahora);
+                        ps.setTimestamp(9, ahora);
+                    }));
+            return validos.size();
+        } catch (DataAccessException e) {
+            log.warn("Lote de importación rechazado por la base de datos", e);
+            validos.forEach(fila -> importacion.registrarError(fila.numero(), "Lote rechazado por la base de datos: "
+                    + e.getMostSpecificCause().getMessage()));
+            return 0;
+        }
+    }
+
+    private static String valor(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static BigDecimal decimal(List<String> campos, Map<String, Integer> columnas, String columna) {
+        String valor = valor(campos, columnas, columna);
+        return valor == null ? null : new BigDecimal(numerico(valor, columna));
+    }
+
+    private static Integer entero(List<String> campos, Map<String, Integer> columnas, String columna) {
+        String valor = valor(campos, columnas, columna);
+        return valor == null ? null : Integer.valueOf(numerico(valor, columna));
+    }
+
+    private static Long largo(List<String> campos, Map<String, Integer> columnas, String columna) {
+        String valor = valor(campos, columnas, columna);
+        return valor == null ? null : Long.valueOf(numerico(valor, columna));
+    }
+
+    private static String numerico(String valor, String columna) {
+        if (!valor.matches("-?\\d+(\\.\\d+)?")) {
+            throw new NumberFormatException("Valor numérico inválido en " + columna + ": " + valor);
+        }
+        return valor;
+    }
+
+    private record FilaImportacion(int numero, ProductoRequest request) {
+    }
+
+    /** Estado de una importación en curso: lote pendiente, contadores y errores. */
+    private class Importacion {
+
+        private final List<FilaImportacion> lote = new ArrayList<>(tamanioLote);
+        private final List<ImportacionResultadoResponse.ErrorFila> errores = new ArrayList<>();
+        private int procesadas;
+        private int importadas;
+        private int fallidas;
+
+        void agregar(int fila, ProductoRequest request) {
+            procesadas++;
+            Set<ConstraintViolation<ProductoRequest>> violaciones = validator.validate(request);
+            if (!violaciones.isEmpty()) {
+                registrarError(fila, violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            lote.add(new FilaImportacion(fila, request));
+            if (lote.size() == tamanioLote) {
+                vaciarLote();
+            }
+        }
+
+        /** Fila que ni siquiera pudo convertirse en producto. */
+        void error(int fila, String mensaje) {
+            procesadas++;
+            registrarError(fila, mensaje);
+        }
+
+        void cerrar() {
+            vaciarLote();
+            if (importadas > 0) {
+                eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
+            }
+        }
+
+        private void vaciarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<FilaImportacion> pendientes = List.copyOf(lote);
+            lote.clear();
+            importadas += guardarLote(pendientes, this);
+        }
+
+        void registrarError(int fila, String mensaje) {
+            fallidas++;
+            if (errores.size() < MAXIMO_ERRORES_REPORTADOS) {
+                errores.add(ImportacionResultadoResponse.ErrorFila.builder().fila(fila).mensaje(mensaje).build());
+            }
+        }
+    }
+}
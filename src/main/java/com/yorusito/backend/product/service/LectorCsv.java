@@ -0,0 +1,66 @@
+package com.yorusito.backend.product.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) que entrega un registro por llamada sin cargar el
+ * archivo completo. Soporta campos entre comillas con comas, comillas dobles
+ * escapadas y saltos de línea.
+ */
+final class LectorCsv {
+
+    private final BufferedReader reader;
+
+    LectorCsv(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Devuelve los campos del siguiente registro o {@code null} al llegar al final.
+     */
+    List<String> siguiente() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean leido = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            leido = true;
+            if (entreComillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int despues = reader.read();
+                    if (despues == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        if (despues != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+        }
+
+        if (!leido) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,62 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.shared.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Posición de lectura para la paginación por cursor (keyset). Guarda los valores
+ * de la última fila entregada según el orden usado, y viaja al cliente como un
+ * texto opaco en Base64.
+ */
+record ProductoCursor(OrdenCursor orden, LocalDateTime fechaCreacion, BigDecimal precio, Long id) {
+
+    enum OrdenCursor {
+        FECHA_DESC, FECHA_ASC, PRECIO_ASC, PRECIO_DESC;
+
+        boolean porFecha() {
+            return this == FECHA_DESC || this == FECHA_ASC;
+        }
+    }
+
+    static ProductoCursor desde(OrdenCursor orden, Producto producto) {
+        // La base de datos guarda microsegundos, el cursor debe comparar con el mismo valor
+        LocalDateTime fecha = producto.getFechaCreacion() != null
+                ? producto.getFechaCreacion().truncatedTo(ChronoUnit.MICROS)
+                : null;
+        return new ProductoCursor(orden, fecha, producto.getPrecio(), producto.getId());
+    }
+
+    String codificar() {
+        String valor = orden.porFecha() ? String.valueOf(fechaCreacion) : precio.toPlainString();
+        String texto = orden.name() + "|" + valor + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductoCursor decodificar(String cursor, OrdenCursor ordenEsperado) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\|");
+            if (partes.length != 3) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            OrdenCursor orden = OrdenCursor.valueOf(partes[0]);
+            if (orden != ordenEsperado) {
+                throw new BadRequestException("El cursor no corresponde al orden solicitado");
+            }
+            Long id = Long.valueOf(partes[2]);
+            if (orden.porFecha()) {
+                return new ProductoCursor(orden, LocalDateTime.parse(partes[1]), null, id);
+            }
+            return new ProductoCursor(orden, null, new BigDecimal(partes[1]), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.ProductoResumenResponse;
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Listados de productos en su forma resumida. La consulta selecciona solo las
+ * columnas pedidas y construye los DTOs con una expresión constructora, sin
+ * hidratar entidades ni cargar la descripción o la colección.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductoResumenService {
+
+    /**
+     * Campos disponibles para {@code fields=}, con el nombre con el que salen en el JSON.
+     */
+    enum Campo {
+        ID("id"), NOMBRE("nombre"), PRECIO("precio"), STOCK("stock"), IMAGEN_URL("imagen_url"),
+        CATEGORIA_ID("categoria_id"), CATEGORIA_NOMBRE("categoria_nombre");
+
+        private final String nombre;
+
+        Campo(String nombre) {
+            this.nombre = nombre;
+        }
+
+        /**
+         * Campo por el que ordenar; acepta el nombre del JSON o el de la propiedad
+         * ({@code imagen_url} o {@code imagenUrl}).
+         */
+        static Campo ordenablePor(String propiedad) {
+            String buscado = propiedad.trim().toLowerCase(Locale.ROOT).replace("_", "");
+            return Arrays.stream(values())
+                    .filter(campo -> campo.nombre.replace("_", "").equals(buscado))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("No se puede ordenar el resumen por: " + propiedad
+                            + ". Campos válidos: " + Arrays.stream(values()).map(campo -> campo.nombre)
+                            .collect(Collectors.joining(", "))));
+        }
+
+        static Campo desde(String nombre) {
+            String buscado = nombre.trim().toLowerCase(Locale.ROOT);
+            return Arrays.stream(values())
+                    .filter(campo -> campo.nombre.equals(buscado))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Campo no disponible en el resumen: " + nombre
+                            + ". Campos válidos: " + Arrays.stream(values()).map(campo -> campo.nombre)
+                            .collect(Collectors.joining(", "))));
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    /**
+     * Página de productos activos resumidos, opcionalmente de una categoría.
+     * Con {@code fields} vacío se devuelven todos los campos del resumen; el id
+     * se incluye siempre.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductoResumenResponse> listar(Long categoriaId, String fields, Pageable pageable) {
+        Set<Campo> campos = parsearCampos(fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ProductoResumenResponse> consulta = cb.createQuery(ProductoResumenResponse.class);
+        Root<Producto> producto = consulta.from(Producto.class);
+        Join<Producto, Categoria> categoria = producto.join("categoria");
+        Map<Campo, Path<?>> rutas = new EnumMap<>(Campo.class);
+        rutas.put(Campo.ID, producto.get("id"));
+        rutas.put(Campo.NOMBRE, producto.get("nombre"));
+        rutas.put(Campo.PRECIO, producto.get("precio"));
+        rutas.put(Campo.STOCK, producto.get("stock"));
+        rutas.put(Campo.IMAGEN_URL, producto.get("imagenUrl"));
+        rutas.put(Campo.CATEGORIA_ID, categoria.get("id"));
+        rutas.put(Campo.CATEGORIA_NOMBRE, categoria.get("nombre"));
+        consulta.select(cb.construct(ProductoResumenResponse.class,
+                        producto.get("id"),
+                        columna(cb, campos, Campo.NOMBRE, producto.get("nombre"), String.class),
+                        columna(cb, campos, Campo.PRECIO, producto.get("precio"), BigDecimal.class),
+                        columna(cb, campos, Campo.STOCK, producto.get("stock"), Integer.class),
+                        columna(cb, campos, Campo.IMAGEN_URL, producto.get("imagenUrl"), String.class),
+                        columna(cb, campos, Campo.CATEGORIA_ID, categoria.get("id"), Long.class),
+                        columna(cb, campos, Campo.CATEGORIA_NOMBRE, categoria.get("nombre"), String.class)))
+                .where(filtros(cb, producto, categoria, categoriaId))
+                .orderBy(orden(cb, pageable.getSort(), rutas));
+
+        List<ProductoResumenResponse> contenido = entityManager.createQuery(consulta)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> conteo = cb.createQuery(Long.class);
+        Root<Producto> productoConteo = conteo.from(Producto.class);
+        Join<Producto, Categoria> categoriaConteo = productoConteo.join("categoria");
+        conteo.select(cb.count(productoConteo))
+                .where(filtros(cb, productoConteo, categoriaConteo, categoriaId));
+
+        return new PageImpl<>(contenido, pageable, entityManager.createQuery(conteo).getSingleResult());
+    }
+
+    private static Set<Campo> parsearCampos(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(Campo.class);
+        }
+        Set<Campo> campos = EnumSet.of(Campo.ID);
+        for (String nombre : fields.split(",")) {
+            if (!nombre.isBlank()) {
+                campos.add(Campo.desde(nombre));
+            }
+        }
+        return campos;
+    }
+
+    /**
+     * Traduce el orden pedido a columnas del resumen; cualquier otra propiedad
+     * (la descripción, la colección o una inexistente) se rechaza.
+     */
+    private static List<Order> orden(CriteriaBuilder cb, Sort sort, Map<Campo, Path<?>> rutas) {
+        List<Order> orden = new ArrayList<>();
+        for (Sort.Order pedido : sort) {
+            Path<?> ruta = rutas.get(Campo.ordenablePor(pedido.getProperty()));
+            orden.add(pedido.isAscending() ? cb.asc(ruta) : cb.desc(ruta));
+        }
+        return orden;
+    }
+
+    /**
+     * La columna si el campo fue pedido; si no, un null literal que no lee nada de la tabla.
+     */
+    private static <T> Selection<? extends T> columna(CriteriaBuilder cb, Set<Campo> campos, Campo campo,
+                                                    Path<T> ruta, Class<T> tipo) {
+        return campos.contains(campo) ? ruta : cb.nullLiteral(tipo);
+    }
+
+    private static Predicate[] filtros(CriteriaBuilder cb, Root<Producto> producto,
+                                       Join<Producto, Categoria> categoria, Long categoriaId) {
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.isTrue(producto.get("activo")));
+        if (categoriaId != null) {
+            predicados.add(cb.equal(categoria.get("id"), categoriaId));
+        }
+        return predicados.toArray(Predicate[]::new);
+    }
+}
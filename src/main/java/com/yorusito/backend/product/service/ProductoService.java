@@ -1,87 +1,289 @@
 package com.yorusito.backend.product.service;
 
-import com.yorusito.backend.product.dto.CategoriaResponse;
-import com.yorusito.backend.product.dto.ColeccionResponse;
+import com.yorusito.backend.product.cache.ProductoCache;
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+import com.yorusito.backend.product.dto.FacetasResponse;
+import com.yorusito.backend.product.dto.PaginaCursorResponse;
 import com.yorusito.backend.product.dto.ProductoRequest;
 import com.yorusito.backend.product.dto.ProductoResponse;
+import com.yorusito.backend.product.dto.SugerenciaResponse;
 import com.yorusito.backend.product.entity.Categoria;
 import com.yorusito.backend.product.entity.Coleccion;
 import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.ranking.PopularidadProductos;
+import com.yorusito.backend.product.ranking.ProductosRelacionados;
 import com.yorusito.backend.product.repository.CategoriaRepository;
 import com.yorusito.backend.product.repository.ColeccionRepository;
 import com.yorusito.backend.product.repository.ProductoRepository;
+import com.yorusito.backend.product.search.CacheBusquedas;
+import com.yorusito.backend.product.search.FiltroProductos;
+import com.yorusito.backend.product.search.IndiceAutocompletado;
+import com.yorusito.backend.product.search.IndiceBusquedaProductos;
+import com.yorusito.backend.product.search.IndiceFiltrosProductos;
+import com.yorusito.backend.product.search.ResultadoBusqueda;
+import com.yorusito.backend.product.search.ResultadoFiltro;
+import com.yorusito.backend.product.search.TextoNormalizador;
+import com.yorusito.backend.product.service.ProductoCursor.OrdenCursor;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import com.yorusito.backend.product.snapshot.CatalogoSnapshot;
+import com.yorusito.backend.shared.exception.ServicioNoDisponibleException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductoService {
 
+    private static final int MAXIMO_RELACIONADOS = 5;
+    private static final int LOTE_EXPORTACION = 500;
+    private static final Duration REINTENTO_INDICES = Duration.ofSeconds(5);
+
     private final ProductoRepository productoRepository;
     private final CategoriaRepository categoriaRepository;
     private final ColeccionRepository coleccionRepository;
+    private final ProductoCache productoCache;
+    private final CatalogoMapper catalogoMapper;
+    private final CatalogoPublicado catalogoPublicado;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final IndiceFiltrosProductos indiceFiltros;
+    private final IndiceAutocompletado indiceAutocompletado;
+    private final CacheBusquedas cacheBusquedas;
+    private final PopularidadProductos popularidad;
+    private final ProductosRelacionados productosRelacionados;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     public List<ProductoResponse> obtenerTodos() {
-        return productoRepository.findByActivoTrue()
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().activos();
+        }
+        return productoCache.obtener("lista", () -> productoRepository.findByActivoTrue()
                 .stream()
                 .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Recorre los productos activos con un cursor de solo avance y entrega cada uno
+     * al consumidor a medida que llega de la base de datos. La sesión se limpia cada
+     * {@value #LOTE_EXPORTACION} filas para que la memoria no crezca con el catálogo.
+     */
+    @Transactional(readOnly = true)
+    public void exportarActivos(Consumer<ProductoResponse> consumidor) {
+        try (Stream<Producto> productos = productoRepository.streamActivos()) {
+            Iterator<Producto> iterador = productos.iterator();
+            int procesados = 0;
+            while (iterador.hasNext()) {
+                consumidor.accept(convertirAResponse(iterador.next()));
+                if (++procesados % LOTE_EXPORTACION == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     public Page<ProductoResponse> obtenerTodosPaginado(Pageable pageable) {
-        return productoRepository.findByActivoTrue(pageable)
-                .map(this::convertirAResponse);
+        String clave = "pagina:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return productoCache.obtener(clave, () -> productoRepository.findByActivoTrue(pageable)
+                .map(this::convertirAResponse));
     }
 
     public Page<ProductoResponse> buscarProductos(String search, Pageable pageable) {
-        return productoRepository.findBySearchAndActivoTrue(search, pageable)
-                .map(this::convertirAResponse);
+        // El índice ordena por relevancia; un orden explícito o un índice aún sin construir van a la base de datos
+        if (!indiceBusqueda.estaListo() || pageable.getSort().isSorted()
+                || TextoNormalizador.palabras(search).isEmpty()) {
+            return productoRepository.findBySearchAndActivoTrue(search, pageable)
+                    .map(this::convertirAResponse);
+        }
+
+        String clave = claveBusqueda("buscar", search, pageable.getOffset(), pageable.getPageSize());
+        return cacheBusquedas.obtener(clave, () -> {
+            List<ResultadoBusqueda> resultados = indiceBusqueda.buscar(search);
+            if (resultados.isEmpty()) {
+                // Sin coincidencias exactas se prueba corrigiendo errores de tipeo
+                resultados = indiceBusqueda.buscarAproximado(search);
+            }
+            int desde = (int) Math.min(pageable.getOffset(), resultados.size());
+            int hasta = Math.min(desde + pageable.getPageSize(), resultados.size());
+            List<Long> ids = resultados.subList(desde, hasta).stream()
+                    .map(ResultadoBusqueda::productoId)
+                    .collect(Collectors.toList());
+
+            return new PageImpl<>(cargarEnOrden(ids), pageable, resultados.size());
+        });
     }
 
-    public Page<ProductoResponse> busquedaAvanzada(String search, Long categoriaId,
+    public Page<ProductoResponse> busquedaAvanzada(String search, Long categoriaId, Long coleccionId,
                                                  java.math.BigDecimal precioMin, java.math.BigDecimal precioMax,
                                                  Boolean enStock, String ordenarPor, String direccion,
                                                  Pageable pageable) {
-        return productoRepository.busquedaAvanzada(search, categoriaId, precioMin, precioMax, enStock, pageable)
-                .map(this::convertirAResponse);
+        if (!indicesListos(search)) {
+            // Mismos filtros y orden que el índice, para que la respuesta no dependa de si ya está listo
+            Pageable ordenada = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    ordenBusquedaAvanzada(ordenarPor, direccion));
+            return productoRepository.busquedaAvanzada(search, categoriaId, coleccionId, precioMin, precioMax,
+                            enStock, ordenada)
+                    .map(this::convertirAResponse);
+        }
+
+        String clave = claveBusqueda("avanzada", search, categoriaId, coleccionId, precioMin, precioMax, enStock,
+                ordenarPor, "desc".equalsIgnoreCase(direccion) ? "desc" : "asc",
+                pageable.getOffset(), pageable.getPageSize());
+        return cacheBusquedas.obtener(clave, () -> {
+            FiltroProductos filtro = construirFiltro(search, categoriaId, coleccionId, precioMin, precioMax, enStock);
+            ResultadoFiltro resultado = indiceFiltros.buscar(filtro, ordenarPor, direccion,
+                    pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(cargarEnOrden(resultado.productoIds()), pageable, resultado.total());
+        });
+    }
+
+    /**
+     * Sugerencias de productos, categorías y colecciones para el cuadro de
+     * búsqueda, servidas desde el índice de prefijos en memoria.
+     */
+    public List<SugerenciaResponse> autocompletar(String consulta, int limite) {
+        if (!indiceAutocompletado.estaListo()) {
+            return List.of();
+        }
+        return indiceAutocompletado.sugerir(consulta, limite).stream()
+                .map(sugerencia -> SugerenciaResponse.builder()
+                        .tipo(sugerencia.tipo())
+                        .id(sugerencia.id())
+                        .texto(sugerencia.texto())
+                        .build())
+                .toList();
+    }
+
+    public FacetasResponse obtenerFacetas(String search, Long categoriaId, Long coleccionId,
+                                          java.math.BigDecimal precioMin, java.math.BigDecimal precioMax,
+                                          Boolean enStock) {
+        if (!indicesListos(search)) {
+            // Las facetas solo salen del índice; mientras se construye se pide reintentar
+            throw new ServicioNoDisponibleException("El índice del catálogo todavía se está construyendo",
+                    REINTENTO_INDICES);
+        }
+        String clave = claveBusqueda("facetas", search, categoriaId, coleccionId, precioMin, precioMax, enStock);
+        return cacheBusquedas.obtener(clave, () ->
+                indiceFiltros.facetas(construirFiltro(search, categoriaId, coleccionId, precioMin, precioMax, enStock)));
     }
 
+    public PaginaCursorResponse<ProductoResponse> obtenerPorCursor(String cursor, int tamanio) {
+        // Se pide una fila extra para saber si existe una página siguiente
+        Limit limite = Limit.of(tamanio + 1);
+        List<Producto> productos;
+        if (cursor == null || cursor.isBlank()) {
+            productos = productoRepository.findPrimerosPorFecha(limite);
+        } else {
+            ProductoCursor posicion = ProductoCursor.decodificar(cursor, OrdenCursor.FECHA_DESC);
+            productos = productoRepository.findSiguientesPorFecha(posicion.fechaCreacion(), posicion.id(), limite);
+        }
+        return construirPaginaCursor(productos, tamanio, OrdenCursor.FECHA_DESC);
+    }
+
+    public PaginaCursorResponse<ProductoResponse> busquedaAvanzadaPorCursor(String search, Long categoriaId,
+                                                                            java.math.BigDecimal precioMin, java.math.BigDecimal precioMax,
+                                                                            Boolean enStock, String ordenarPor, String direccion,
+                                                                            String cursor, int tamanio) {
+        // Sin dirección explícita: fecha de más reciente a más antigua, precio de menor a mayor
+        OrdenCursor orden = "precio".equalsIgnoreCase(ordenarPor)
+                ? ("desc".equalsIgnoreCase(direccion) ? OrdenCursor.PRECIO_DESC : OrdenCursor.PRECIO_ASC)
+                : ("asc".equalsIgnoreCase(direccion) ? OrdenCursor.FECHA_ASC : OrdenCursor.FECHA_DESC);
+        ProductoCursor posicion = cursor == null || cursor.isBlank()
+                ? new ProductoCursor(orden, null, null, null)
+                : ProductoCursor.decodificar(cursor, orden);
+        Limit limite = Limit.of(tamanio + 1);
+
+        List<Producto> productos = switch (orden) {
+            case FECHA_DESC -> productoRepository.busquedaAvanzadaPorFecha(search, categoriaId, precioMin, precioMax,
+                    enStock, posicion.fechaCreacion(), posicion.id(), limite);
+            case FECHA_ASC -> productoRepository.busquedaAvanzadaPorFechaAsc(search, categoriaId, precioMin, precioMax,
+                    enStock, posicion.fechaCreacion(), posicion.id(), limite);
+            case PRECIO_ASC -> productoRepository.busquedaAvanzadaPorPrecioAsc(search, categoriaId, precioMin, precioMax,
+                    enStock, posicion.precio(), posicion.id(), limite);
+            case PRECIO_DESC -> productoRepository.busquedaAvanzadaPorPrecioDesc(search, categoriaId, precioMin, precioMax,
+                    enStock, posicion.precio(), posicion.id(), limite);
+        };
+        return construirPaginaCursor(productos, tamanio, orden);
+    }
+
+    /**
+     * Productos con más ventas recientes según el ranking en memoria. Si todavía
+     * no hay ventas suficientes se completa con los productos más nuevos.
+     */
     public List<ProductoResponse> obtenerProductosPopulares(int limit) {
-        return productoRepository.findProductosPopulares(limit)
-                .stream()
-                .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+        List<Long> ids = popularidad.top(limit, this::estaActivoEnIndice);
+        List<ProductoResponse> populares = cargarActivosEnOrden(ids);
+        if (populares.size() < limit) {
+            completar(populares, ids, productoRepository.findPrimerosPorFecha(Limit.of(limit + ids.size())), limit);
+        }
+        return populares;
     }
 
+    /**
+     * Vecinos por co-compra precalculados en segundo plano; si no alcanzan se
+     * completa con los productos más nuevos de la misma categoría.
+     */
     public List<ProductoResponse> obtenerProductosRelacionados(Long productoId) {
         Producto producto = productoRepository.findById(productoId)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
 
-        return productoRepository.findByCategoriaIdAndActivoTrueAndIdNot(
-                producto.getCategoria().getId(), productoId)
-                .stream()
-                .limit(5)
-                .map(this::convertirAResponse)
+        List<Long> ids = productosRelacionados.vecinosDe(productoId).stream()
+                .filter(this::estaActivoEnIndice)
+                .limit(MAXIMO_RELACIONADOS)
                 .collect(Collectors.toList());
+        List<ProductoResponse> relacionados = cargarActivosEnOrden(ids);
+        if (relacionados.size() < MAXIMO_RELACIONADOS) {
+            completar(relacionados, ids, productoRepository.findByCategoriaIdAndActivoTrueAndIdNotOrderByFechaCreacionDesc(
+                    producto.getCategoria().getId(), productoId, Limit.of(MAXIMO_RELACIONADOS + ids.size())),
+                    MAXIMO_RELACIONADOS);
+        }
+        return relacionados;
     }
 
     public List<ProductoResponse> obtenerPorCategoria(Long categoriaId) {
-        return productoRepository.findByCategoriaIdAndActivoTrue(categoriaId)
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().activosDeCategoria(categoriaId);
+        }
+        return productoCache.obtener("categoria:" + categoriaId, () -> productoRepository.findByCategoriaIdAndActivoTrue(categoriaId)
                 .stream()
                 .map(this::convertirAResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public ProductoResponse obtenerPorId(Long id) {
-        Producto producto = productoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
-        return convertirAResponse(producto);
+        // Un producto recién creado puede no estar aún en el snapshot: se busca en la base de datos
+        Optional<ProductoResponse> publicado = catalogoPublicado.actual().producto(id);
+        if (publicado.isPresent()) {
+            return publicado.get();
+        }
+        return productoCache.obtener("id:" + id, () -> {
+            Producto producto = productoRepository.findConRelacionesById(id)
+                    .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+            return convertirAResponse(producto);
+        });
     }
 
     public ProductoResponse crear(ProductoRequest request) {
@@ -105,6 +307,7 @@ public class ProductoService {
                 .build();
 
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProducto(producto.getId()));
         return convertirAResponse(producto);
     }
 
@@ -130,6 +333,7 @@ public class ProductoService {
         producto.setColeccion(coleccion);
 
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProducto(producto.getId()));
         return convertirAResponse(producto);
     }
 
@@ -138,54 +342,139 @@ public class ProductoService {
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         producto.setActivo(false);
         productoRepository.save(producto);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deProducto(id));
     }
 
     public List<ProductoResponse> obtenerNuevosLlegados(int limite) {
-        List<Producto> productos = productoRepository.findByActivoTrueOrderByFechaCreacionDesc(
-                PageRequest.of(0, limite));
-        return productos.stream()
+        if (catalogoPublicado.estaListo()) {
+            return catalogoPublicado.actual().activosMasNuevos(limite);
+        }
+        return productoCache.obtener("nuevos:" + limite, () -> productoRepository.findByActivoTrueOrderByFechaCreacionDesc(
+                PageRequest.of(0, limite))
+                .stream()
                 .map(this::convertirAResponse)
+                .collect(Collectors.toList()));
+    }
+
+    public List<CacheEstadisticasResponse> obtenerEstadisticasCache() {
+        return List.of(productoCache.estadisticas(), cacheBusquedas.estadisticas());
+    }
+
+    private boolean estaActivoEnIndice(Long productoId) {
+        return !indiceFiltros.estaListo() || indiceFiltros.estaActivo(productoId);
+    }
+
+    private List<ProductoResponse> cargarActivosEnOrden(List<Long> ids) {
+        return cargarEnOrden(ids).stream()
+                .filter(producto -> Boolean.TRUE.equals(producto.getActivo()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Añade a {@code destino} candidatos que no estén en {@code excluidos} hasta llegar a {@code limite}.
+     */
+    private void completar(List<ProductoResponse> destino, List<Long> excluidos, List<Producto> candidatos, int limite) {
+        candidatos.stream()
+                .filter(producto -> !excluidos.contains(producto.getId()))
+                .limit(limite - destino.size())
+                .map(this::convertirAResponse)
+                .forEach(destino::add);
+    }
+
+    private boolean indicesListos(String search) {
+        return indiceFiltros.estaListo()
+                && (search == null || search.isBlank() || indiceBusqueda.estaListo());
+    }
+
+    /**
+     * Clave normalizada de una búsqueda: el texto se reduce a sus palabras plegadas
+     * y los importes pierden los ceros sobrantes, para que "Polo  Básico" y
+     * "polo basico", o 50 y 50.00, compartan entrada.
+     */
+    private static String claveBusqueda(String tipo, String search, Object... parametros) {
+        StringJoiner clave = new StringJoiner("|")
+                .add(tipo)
+                .add(String.join(" ", TextoNormalizador.palabras(search)));
+        for (Object parametro : parametros) {
+            if (parametro == null) {
+                clave.add("");
+            } else if (parametro instanceof java.math.BigDecimal importe) {
+                clave.add(importe.stripTrailingZeros().toPlainString());
+            } else {
+                clave.add(parametro.toString());
+            }
+        }
+        return clave.toString();
+    }
+
+    private FiltroProductos construirFiltro(String search, Long categoriaId, Long coleccionId,
+                                            java.math.BigDecimal precioMin, java.math.BigDecimal precioMax,
+                                            Boolean enStock) {
+        List<Long> candidatos = null;
+        if (search != null && !TextoNormalizador.palabras(search).isEmpty()) {
+            candidatos = indiceBusqueda.buscar(search).stream()
+                    .map(ResultadoBusqueda::productoId)
+                    .collect(Collectors.toList());
+        }
+        return new FiltroProductos(candidatos, categoriaId, coleccionId, precioMin, precioMax, enStock);
+    }
+
+    /**
+     * Carga los productos indicados en una sola consulta y los devuelve en el orden de los ids.
+     */
+    private List<ProductoResponse> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CatalogoSnapshot snapshot = catalogoPublicado.actual();
+        Map<Long, ProductoResponse> productos = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            snapshot.producto(id).ifPresentOrElse(producto -> productos.put(id, producto), () -> faltantes.add(id));
+        }
+        if (!faltantes.isEmpty()) {
+            productoRepository.findConRelacionesByIdIn(faltantes)
+                    .forEach(producto -> productos.put(producto.getId(), convertirAResponse(producto)));
+        }
+        return ids.stream()
+                .map(productos::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-    private ProductoResponse convertirAResponse(Producto producto) {
-        CategoriaResponse categoriaResponse = CategoriaResponse.builder()
-                .id(producto.getCategoria().getId())
-                .nombre(producto.getCategoria().getNombre())
-                .descripcion(producto.getCategoria().getDescripcion())
-                .fechaCreacion(producto.getCategoria().getFechaCreacion())
-                .build();
+    /**
+     * Orden equivalente al de {@link IndiceFiltrosProductos#buscar}: por nombre,
+     * precio o fecha, con el id como desempate en la misma dirección.
+     */
+    private Sort ordenBusquedaAvanzada(String ordenarPor, String direccion) {
+        Sort.Direction sentido = "desc".equalsIgnoreCase(direccion) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort.Order campo = switch (ordenarPor == null ? "" : ordenarPor) {
+            case "precio" -> new Sort.Order(sentido, "precio");
+            case "fecha", "fechaCreacion" -> new Sort.Order(sentido, "fechaCreacion");
+            default -> new Sort.Order(sentido, "nombre").ignoreCase();
+        };
+        return Sort.by(campo, new Sort.Order(sentido, "id"));
+    }
 
-        ColeccionResponse coleccionResponse = null;
-        if (producto.getColeccion() != null) {
-            coleccionResponse = ColeccionResponse.builder()
-                    .id(producto.getColeccion().getId())
-                    .nombre(producto.getColeccion().getNombre())
-                    .descripcion(producto.getColeccion().getDescripcion())
-                    .imagenUrl(producto.getColeccion().getImagenUrl())
-                    .temporada(producto.getColeccion().getTemporada())
-                    .colorTematico(producto.getColeccion().getColorTematico())
-                    .destacada(producto.getColeccion().getDestacada())
-                    .activa(producto.getColeccion().getActiva())
-                    .fechaInicio(producto.getColeccion().getFechaInicio())
-                    .fechaFin(producto.getColeccion().getFechaFin())
-                    .fechaCreacion(producto.getColeccion().getFechaCreacion())
-                    .fechaActualizacion(producto.getColeccion().getFechaActualizacion())
-                    .build();
-        }
-
-        return ProductoResponse.builder()
-                .id(producto.getId())
-                .nombre(producto.getNombre())
-                .descripcion(producto.getDescripcion())
-                .precio(producto.getPrecio())
-                .stock(producto.getStock())
-                .imagenUrl(producto.getImagenUrl())
-                .categoria(categoriaResponse)
-                .coleccion(coleccionResponse)
-                .activo(producto.getActivo())
-                .fechaCreacion(producto.getFechaCreacion())
-                .fechaActualizacion(producto.getFechaActualizacion())
+    private PaginaCursorResponse<ProductoResponse> construirPaginaCursor(List<Producto> productos, int tamanio,
+                                                                         OrdenCursor orden) {
+        boolean tieneMas = productos.size() > tamanio;
+        List<Producto> pagina = tieneMas ? productos.subList(0, tamanio) : productos;
+        String siguienteCursor = tieneMas
+                ? ProductoCursor.desde(orden, pagina.get(pagina.size() - 1)).codificar()
+                : null;
+
+        return PaginaCursorResponse.<ProductoResponse>builder()
+                .contenido(pagina.stream()
+                        .map(this::convertirAResponse)
+                        .collect(Collectors.toList()))
+                .siguienteCursor(siguienteCursor)
+                .tieneMas(tieneMas)
+                .tamanio(pagina.size())
                 .build();
     }
+
+    private ProductoResponse convertirAResponse(Producto producto) {
+        return catalogoMapper.aResponse(producto);
+    }
 }
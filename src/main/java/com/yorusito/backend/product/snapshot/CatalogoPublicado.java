@@ -0,0 +1,73 @@
+package com.yorusito.backend.product.snapshot;
+
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.service.CatalogoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Punto de publicación del {@link CatalogoSnapshot} vigente. Los lectores toman
+ * la referencia actual sin bloqueos ni sesión de JPA; los escritores (serializados
+ * entre sí) construyen un snapshot nuevo a partir del anterior y lo reemplazan de
+ * forma atómica.
+ *
+ * <p>{@link #version()} es la versión del snapshot publicado, que otros módulos
+ * pueden usar como parte de sus claves de caché y de la que salen el ETag y el
+ * Last-Modified de las respuestas del catálogo: cambia con cada publicación, así
+ * que nunca se adelanta a los datos que describe.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogoPublicado {
+
+    private final CatalogoMapper catalogoMapper;
+
+    /** Distingue arranques: la versión vuelve a 1 cada vez que se inicia la aplicación. */
+    private final long arranque = System.currentTimeMillis();
+    private volatile CatalogoSnapshot actual = CatalogoSnapshot.vacio();
+    private volatile boolean listo;
+
+    public CatalogoSnapshot actual() {
+        return actual;
+    }
+
+    public long version() {
+        return actual.version();
+    }
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * ETag fuerte de un snapshot, válido para cualquier respuesta que solo
+     * dependa de sus datos.
+     */
+    public String etag(CatalogoSnapshot snapshot) {
+        return "\"" + Long.toHexString(arranque) + "-" + snapshot.version() + "\"";
+    }
+
+    public synchronized void reconstruir(Collection<Producto> productos, Collection<Categoria> categorias,
+                                         Collection<Coleccion> colecciones) {
+        actual = CatalogoSnapshot.construir(actual.version() + 1, Instant.now(),
+                productos.stream().map(catalogoMapper::aResponse).toList(),
+                categorias.stream().map(catalogoMapper::aResponse).toList(),
+                colecciones.stream().map(catalogoMapper::aResponse).toList());
+        listo = true;
+        log.info("Snapshot del catálogo publicado: versión {}, {} productos", actual.version(), actual.totalProductos());
+    }
+
+    public synchronized void actualizarProductos(Collection<Producto> modificados, Set<Long> eliminados) {
+        actual = actual.conProductos(actual.version() + 1, Instant.now(),
+                modificados.stream().map(catalogoMapper::aResponse).toList(),
+                eliminados);
+    }
+}
@@ -0,0 +1,198 @@
+package com.yorusito.backend.product.snapshot;
+
+import com.yorusito.backend.product.dto.CategoriaResponse;
+import com.yorusito.backend.product.dto.ColeccionResponse;
+import com.yorusito.backend.product.dto.NavegacionResponse;
+import com.yorusito.backend.product.dto.NavegacionResponse.CategoriaNavegacion;
+import com.yorusito.backend.product.dto.ProductoResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Foto inmutable y completamente materializada del catálogo: productos (incluidos
+ * los inactivos, para las consultas por id), categorías y colecciones con sus
+ * conteos, y las vistas derivadas que usan los endpoints de lectura. Nunca se
+ * modifica: cada cambio construye una nueva instancia que se publica de una vez.
+ * Los DTOs que contiene se comparten entre lecturas y deben tratarse como de solo lectura.
+ */
+public final class CatalogoSnapshot {
+
+    private static final Comparator<ProductoResponse> MAS_NUEVOS_PRIMERO = Comparator
+            .comparing(ProductoResponse::getFechaCreacion, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductoResponse::getId, Comparator.reverseOrder());
+    private static final Comparator<ColeccionResponse> COLECCIONES_MAS_NUEVAS_PRIMERO = Comparator
+            .comparing(ColeccionResponse::getFechaCreacion, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final long version;
+    private final Instant publicadoEn;
+    private final Map<Long, ProductoResponse> productos;
+    private final List<ProductoResponse> activos;
+    private final List<ProductoResponse> activosMasNuevos;
+    private final Map<Long, List<ProductoResponse>> activosPorCategoria;
+    private final List<CategoriaResponse> categorias;
+    private final Map<Long, CategoriaResponse> categoriasPorId;
+    private final List<ColeccionResponse> coleccionesActivas;
+    private final List<ColeccionResponse> coleccionesDestacadas;
+    private final Map<Long, ColeccionResponse> coleccionesPorId;
+    private final NavegacionResponse navegacion;
+
+    private CatalogoSnapshot(long version, Instant publicadoEn, Map<Long, ProductoResponse> productos,
+                             Collection<CategoriaResponse> categoriasBase,
+                             Collection<ColeccionResponse> coleccionesBase) {
+        this.version = version;
+        this.publicadoEn = publicadoEn;
+        this.productos = Map.copyOf(productos);
+
+        List<ProductoResponse> activosOrdenados = productos.values().stream()
+                .filter(producto -> Boolean.TRUE.equals(producto.getActivo()))
+                .sorted(Comparator.comparing(ProductoResponse::getId))
+                .toList();
+        this.activos = activosOrdenados;
+        this.activosMasNuevos = activosOrdenados.stream().sorted(MAS_NUEVOS_PRIMERO).toList();
+        this.activosPorCategoria = activosOrdenados.stream()
+                .filter(producto -> producto.getCategoria() != null)
+                .collect(Collectors.collectingAndThen(
+                        Collectors.groupingBy(producto -> producto.getCategoria().getId(), Collectors.toUnmodifiableList()),
+                        Map::copyOf));
+
+        // Los conteos incluyen productos inactivos, igual que las respuestas que salen de la base de datos
+        Map<Long, Integer> porCategoria = new HashMap<>();
+        Map<Long, Integer> porColeccion = new HashMap<>();
+        Map<Long, Integer> enStockPorCategoria = new HashMap<>();
+        for (ProductoResponse producto : productos.values()) {
+            if (producto.getCategoria() != null) {
+                porCategoria.merge(producto.getCategoria().getId(), 1, Integer::sum);
+                if (Boolean.TRUE.equals(producto.getActivo()) && producto.getStock() != null && producto.getStock() > 0) {
+                    enStockPorCategoria.merge(producto.getCategoria().getId(), 1, Integer::sum);
+                }
+            }
+            if (producto.getColeccion() != null) {
+                porColeccion.merge(producto.getColeccion().getId(), 1, Integer::sum);
+            }
+        }
+
+        this.categorias = categoriasBase.stream()
+                .map(categoria -> categoria.toBuilder()
+                        .totalProductos(porCategoria.getOrDefault(categoria.getId(), 0))
+                        .build())
+                .sorted(Comparator.comparing(CategoriaResponse::getId))
+                .toList();
+        this.categoriasPorId = this.categorias.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoriaResponse::getId, categoria -> categoria));
+
+        List<ColeccionResponse> colecciones = coleccionesBase.stream()
+                .map(coleccion -> coleccion.toBuilder()
+                        .cantidadProductos(porColeccion.getOrDefault(coleccion.getId(), 0))
+                        .build())
+                .toList();
+        this.coleccionesPorId = colecciones.stream()
+                .collect(Collectors.toUnmodifiableMap(ColeccionResponse::getId, coleccion -> coleccion));
+        this.coleccionesActivas = colecciones.stream()
+                .filter(coleccion -> Boolean.TRUE.equals(coleccion.getActiva()))
+                .sorted(COLECCIONES_MAS_NUEVAS_PRIMERO)
+                .toList();
+        this.coleccionesDestacadas = coleccionesActivas.stream()
+                .filter(coleccion -> Boolean.TRUE.equals(coleccion.getDestacada()))
+                .toList();
+
+        this.navegacion = NavegacionResponse.builder()
+                .categorias(this.categorias.stream()
+                        .map(categoria -> CategoriaNavegacion.builder()
+                                .id(categoria.getId())
+                                .nombre(categoria.getNombre())
+                                .productosActivos(activosPorCategoria.getOrDefault(categoria.getId(), List.of()).size())
+                                .productosEnStock(enStockPorCategoria.getOrDefault(categoria.getId(), 0))
+                                .build())
+                        .toList())
+                .coleccionesDestacadas(coleccionesDestacadas)
+                .build();
+    }
+
+    public static CatalogoSnapshot construir(long version, Instant publicadoEn, Collection<ProductoResponse> productos,
+                                             Collection<CategoriaResponse> categorias,
+                                             Collection<ColeccionResponse> colecciones) {
+        Map<Long, ProductoResponse> porId = new HashMap<>(productos.size() * 2);
+        productos.forEach(producto -> porId.put(producto.getId(), producto));
+        return new CatalogoSnapshot(version, publicadoEn, porId, categorias, colecciones);
+    }
+
+    /**
+     * Copia este snapshot reemplazando los productos indicados y quitando los
+     * eliminados; categorías y colecciones se conservan.
+     */
+    public CatalogoSnapshot conProductos(long nuevaVersion, Instant publicadoEn,
+                                         Collection<ProductoResponse> modificados, Set<Long> eliminados) {
+        Map<Long, ProductoResponse> copia = new HashMap<>(productos);
+        eliminados.forEach(copia::remove);
+        modificados.forEach(producto -> copia.put(producto.getId(), producto));
+        return new CatalogoSnapshot(nuevaVersion, publicadoEn, copia, categorias, coleccionesPorId.values());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant publicadoEn() {
+        return publicadoEn;
+    }
+
+    public Optional<ProductoResponse> producto(Long id) {
+        return Optional.ofNullable(productos.get(id));
+    }
+
+    public List<ProductoResponse> activos() {
+        return activos;
+    }
+
+    public List<ProductoResponse> activosMasNuevos(int limite) {
+        return activosMasNuevos.subList(0, Math.min(limite, activosMasNuevos.size()));
+    }
+
+    public List<ProductoResponse> activosDeCategoria(Long categoriaId) {
+        return activosPorCategoria.getOrDefault(categoriaId, List.of());
+    }
+
+    public List<CategoriaResponse> categorias() {
+        return categorias;
+    }
+
+    public Optional<CategoriaResponse> categoria(Long id) {
+        return Optional.ofNullable(categoriasPorId.get(id));
+    }
+
+    public List<ColeccionResponse> coleccionesActivas() {
+        return coleccionesActivas;
+    }
+
+    public List<ColeccionResponse> coleccionesDestacadas() {
+        return coleccionesDestacadas;
+    }
+
+    public Optional<ColeccionResponse> coleccion(Long id) {
+        return Optional.ofNullable(coleccionesPorId.get(id));
+    }
+
+    /**
+     * Modelo de navegación de la tienda (categorías con sus conteos y colecciones
+     * destacadas), armado junto con el resto del snapshot.
+     */
+    public NavegacionResponse navegacion() {
+        return navegacion;
+    }
+
+    public int totalProductos() {
+        return productos.size();
+    }
+
+    static CatalogoSnapshot vacio() {
+        return new CatalogoSnapshot(0, Instant.EPOCH, Map.of(), List.of(), List.of());
+    }
+}
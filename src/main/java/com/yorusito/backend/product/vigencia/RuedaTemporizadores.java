@@ -0,0 +1,101 @@
+package com.yorusito.backend.product.vigencia;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rueda de temporizadores con hash: el tiempo se divide en ticks de duración fija
+ * y cada temporizador cae en la ranura {@code tick % ranuras}. Avanzar un tick
+ * solo revisa su ranura, así que programar, cancelar y avanzar no dependen de
+ * cuántos temporizadores haya pendientes. Los que vencen en vueltas posteriores
+ * esperan en su ranura hasta que les llegue el tick.
+ */
+final class RuedaTemporizadores<K> {
+
+    private final long duracionTickMs;
+    private final List<Set<Temporizador<K>>> ranuras;
+    private final Map<K, List<Temporizador<K>>> porClave = new HashMap<>();
+    private long ultimoTick;
+
+    RuedaTemporizadores(long duracionTickMs, int cantidadRanuras, long ahoraMs) {
+        this.duracionTickMs = duracionTickMs;
+        this.ranuras = new ArrayList<>(cantidadRanuras);
+        for (int i = 0; i < cantidadRanuras; i++) {
+            ranuras.add(new HashSet<>());
+        }
+        this.ultimoTick = ahoraMs / duracionTickMs;
+    }
+
+    /**
+     * Programa un vencimiento para la clave; una clave puede tener varios. Un
+     * instante ya pasado vence en el próximo avance.
+     */
+    synchronized void programar(K clave, long instanteMs) {
+        // Se redondea hacia arriba para no vencer nunca antes del instante pedido
+        long tick = Math.max(Math.floorDiv(instanteMs + duracionTickMs - 1, duracionTickMs), ultimoTick + 1);
+        Temporizador<K> temporizador = new Temporizador<>(clave, tick);
+        ranuras.get(ranura(tick)).add(temporizador);
+        porClave.computeIfAbsent(clave, k -> new ArrayList<>()).add(temporizador);
+    }
+
+    /**
+     * Quita todos los vencimientos pendientes de la clave.
+     */
+    synchronized void cancelar(K clave) {
+        List<Temporizador<K>> temporizadores = porClave.remove(clave);
+        if (temporizadores != null) {
+            temporizadores.forEach(temporizador -> ranuras.get(ranura(temporizador.tick())).remove(temporizador));
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta {@code ahoraMs} y devuelve las claves con algún
+     * vencimiento en ese intervalo. Si la rueda se atrasó más de una vuelta se
+     * revisan todas las ranuras una sola vez.
+     */
+    synchronized Set<K> avanzar(long ahoraMs) {
+        long hasta = ahoraMs / duracionTickMs;
+        long desde = Math.max(ultimoTick + 1, hasta - ranuras.size() + 1);
+        Set<K> vencidas = new LinkedHashSet<>();
+        for (long tick = desde; tick <= hasta; tick++) {
+            Iterator<Temporizador<K>> iterador = ranuras.get(ranura(tick)).iterator();
+            while (iterador.hasNext()) {
+                Temporizador<K> temporizador = iterador.next();
+                if (temporizador.tick() <= hasta) {
+                    iterador.remove();
+                    quitarDeClave(temporizador);
+                    vencidas.add(temporizador.clave());
+                }
+            }
+        }
+        ultimoTick = Math.max(ultimoTick, hasta);
+        return vencidas;
+    }
+
+    synchronized int pendientes() {
+        return porClave.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void quitarDeClave(Temporizador<K> temporizador) {
+        List<Temporizador<K>> deLaClave = porClave.get(temporizador.clave());
+        if (deLaClave != null) {
+            deLaClave.remove(temporizador);
+            if (deLaClave.isEmpty()) {
+                porClave.remove(temporizador.clave());
+            }
+        }
+    }
+
+    private int ranura(long tick) {
+        return (int) Math.floorMod(tick, (long) ranuras.size());
+    }
+
+    private record Temporizador<K>(K clave, long tick) {
+    }
+}
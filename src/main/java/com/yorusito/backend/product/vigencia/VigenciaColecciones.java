@@ -0,0 +1,139 @@
+package com.yorusito.backend.product.vigencia;
+
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.repository.ColeccionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Activa y desactiva las colecciones en sus fechas de inicio y fin. Los límites
+ * futuros se cargan en una {@link RuedaTemporizadores}; al vencer uno se relee la
+ * colección, se ajusta {@code activa} y se publica el cambio del catálogo, de
+ * modo que las lecturas siguen filtrando solo por el flag.
+ * <p>
+ * En una colección con fechas la vigencia manda: al arrancar, al crearla o
+ * editarla y en cada límite, {@code activa} pasa a ser "ahora está entre
+ * fechaInicio (inclusive) y fechaFin (exclusive)". Un cambio manual se respeta
+ * hasta el próximo límite.
+ */
+@Component
+@Slf4j
+public class VigenciaColecciones {
+
+    private static final int RANURAS = 512;
+
+    private final ColeccionRepository coleccionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final RuedaTemporizadores<Long> rueda;
+
+    public VigenciaColecciones(ColeccionRepository coleccionRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               TransactionTemplate transactionTemplate,
+                               Clock clock,
+                               @Value("${catalogo.vigencia.tick-ms:1000}") long duracionTickMs) {
+        this.coleccionRepository = coleccionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.rueda = new RuedaTemporizadores<>(duracionTickMs, RANURAS, clock.millis());
+    }
+
+    /**
+     * Corrige las colecciones cuyos límites pasaron con la aplicación detenida y
+     * programa los próximos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sincronizar() {
+        int corregidas = transactionTemplate.execute(estado -> {
+            LocalDateTime ahora = LocalDateTime.now(clock);
+            int cambios = 0;
+            for (Coleccion coleccion : coleccionRepository.findConVigencia()) {
+                if (aplicarVigencia(coleccion, ahora)) {
+                    cambios++;
+                }
+                programarLimites(coleccion, ahora);
+            }
+            if (cambios > 0) {
+                eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
+            }
+            return cambios;
+        });
+        log.info("Vigencia de colecciones sincronizada: {} corregidas, {} límites programados",
+                corregidas, rueda.pendientes());
+    }
+
+    /**
+     * Ajusta {@code activa} según las fechas de la colección (que debe estar
+     * gestionada por la transacción en curso) y reprograma sus límites.
+     */
+    public void sincronizar(Coleccion coleccion) {
+        LocalDateTime ahora = LocalDateTime.now(clock);
+        aplicarVigencia(coleccion, ahora);
+        if (coleccion.getId() != null) {
+            programarLimites(coleccion, ahora);
+        }
+    }
+
+    public void cancelar(Long coleccionId) {
+        rueda.cancelar(coleccionId);
+    }
+
+    @Scheduled(fixedDelayString = "${catalogo.vigencia.tick-ms:1000}")
+    public void avanzar() {
+        Set<Long> vencidas = rueda.avanzar(clock.millis());
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        List<Long> cambiadas = transactionTemplate.execute(estado -> {
+            LocalDateTime ahora = LocalDateTime.now(clock);
+            List<Long> ids = coleccionRepository.findAllById(vencidas).stream()
+                    .filter(coleccion -> aplicarVigencia(coleccion, ahora))
+                    .map(Coleccion::getId)
+                    .toList();
+            if (!ids.isEmpty()) {
+                eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
+            }
+            return ids;
+        });
+        if (!cambiadas.isEmpty()) {
+            log.info("Colecciones actualizadas por vigencia: {}", cambiadas);
+        }
+    }
+
+    private boolean aplicarVigencia(Coleccion coleccion, LocalDateTime ahora) {
+        if (coleccion.getFechaInicio() == null && coleccion.getFechaFin() == null) {
+            return false;
+        }
+        boolean vigente = (coleccion.getFechaInicio() == null || !ahora.isBefore(coleccion.getFechaInicio()))
+                && (coleccion.getFechaFin() == null || ahora.isBefore(coleccion.getFechaFin()));
+        if (Boolean.valueOf(vigente).equals(coleccion.getActiva())) {
+            return false;
+        }
+        coleccion.setActiva(vigente);
+        coleccion.setFechaActualizacion(ahora);
+        return true;
+    }
+
+    private void programarLimites(Coleccion coleccion, LocalDateTime ahora) {
+        rueda.cancelar(coleccion.getId());
+        for (LocalDateTime limite : new LocalDateTime[]{coleccion.getFechaInicio(), coleccion.getFechaFin()}) {
+            if (limite != null && limite.isAfter(ahora)) {
+                rueda.programar(coleccion.getId(), limite.atZone(clock.getZone()).toInstant().toEpochMilli());
+            }
+        }
+    }
+}
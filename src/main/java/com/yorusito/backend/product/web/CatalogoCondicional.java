@@ -0,0 +1,18 @@
+package com.yorusito.backend.product.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un GET cuya respuesta depende solo del catálogo. Estas peticiones se
+ * validan con el ETag y Last-Modified del snapshot publicado
+ * ({@link com.yorusito.backend.product.snapshot.CatalogoPublicado}) y responden 304 antes de llegar al controlador si el cliente ya tiene la versión vigente.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CatalogoCondicional {
+}
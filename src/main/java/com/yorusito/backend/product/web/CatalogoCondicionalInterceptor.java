@@ -0,0 +1,46 @@
+package com.yorusito.backend.product.web;
+
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import com.yorusito.backend.product.snapshot.CatalogoSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Resuelve If-None-Match / If-Modified-Since para los handlers marcados con
+ * {@link CatalogoCondicional}. En una respuesta 304 no se ejecuta el controlador,
+ * así que no hay consulta, mapeo a DTO ni serialización.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogoCondicionalInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final CatalogoPublicado catalogoPublicado;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod metodo) || !metodo.hasMethodAnnotation(CatalogoCondicional.class)
+                || !catalogoPublicado.estaListo()) {
+            return true;
+        }
+
+        // ETag y fecha salen del snapshot ya publicado: el controlador responde con ese
+        // snapshot, uno posterior o la base de datos, que nunca va por detrás de él; así
+        // el validador nunca se adelanta a los datos
+        CatalogoSnapshot snapshot = catalogoPublicado.actual();
+        String etag = catalogoPublicado.etag(snapshot);
+        long ultimaModificacion = snapshot.publicadoEn().toEpochMilli();
+
+        // Sin esta cabecera Spring Security añade no-store y el navegador nunca revalida
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(etag, ultimaModificacion);
+    }
+}
@@ -0,0 +1,18 @@
+package com.yorusito.backend.product.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class CatalogoWebConfig implements WebMvcConfigurer {
+
+    private final CatalogoCondicionalInterceptor catalogoCondicionalInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogoCondicionalInterceptor);
+    }
+}
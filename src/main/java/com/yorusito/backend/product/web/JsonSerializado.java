@@ -0,0 +1,24 @@
+package com.yorusito.backend.product.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cuerpo JSON ya serializado en UTF-8 y, si comprime, su variante gzip.
+ * {@code gzip} es nulo cuando comprimir no reduce el tamaño.
+ */
+public record JsonSerializado(byte[] json, byte[] gzip) {
+
+    public static JsonSerializado de(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] comprimido = salida.toByteArray();
+        return new JsonSerializado(json, comprimido.length < json.length ? comprimido : null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.yorusito.backend.product.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yorusito.backend.product.cache.CacheVersionada;
+import com.yorusito.backend.product.dto.CacheEstadisticasResponse;
+import com.yorusito.backend.product.snapshot.CatalogoPublicado;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas del catálogo ya serializadas a bytes (JSON UTF-8 y gzip),
+ * versionada con el snapshot publicado. En un acierto no hay mapeo, ni Jackson,
+ * ni compresión: los bytes se copian directamente al output stream del servlet.
+ */
+@Component
+public class RespuestasSerializadas {
+
+    private final ObjectMapper objectMapper;
+    private final CacheVersionada<Long, JsonSerializado> productos;
+    private final CacheVersionada<String, JsonSerializado> listados;
+
+    public RespuestasSerializadas(ObjectMapper objectMapper,
+                                  CatalogoPublicado catalogoPublicado,
+                                  @Value("${catalogo.respuestas.max-entradas:5000}") int capacidadMaxima) {
+        this.objectMapper = objectMapper;
+        this.productos = new CacheVersionada<>("respuestas-producto", capacidadMaxima, catalogoPublicado::version);
+        this.listados = new CacheVersionada<>("respuestas-listado", 64, catalogoPublicado::version);
+    }
+
+    public JsonSerializado producto(Long id, Supplier<?> cargador) {
+        return productos.obtener(id, () -> serializar(cargador.get()));
+    }
+
+    public JsonSerializado listado(String clave, Supplier<?> cargador) {
+        return listados.obtener(clave, () -> serializar(cargador.get()));
+    }
+
+    public void escribir(JsonSerializado respuesta, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String aceptadas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = respuesta.gzip() != null && aceptadas != null && aceptadas.contains("gzip");
+        byte[] cuerpo = gzip ? respuesta.gzip() : respuesta.json();
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    public List<CacheEstadisticasResponse> estadisticas() {
+        return List.of(productos.estadisticas(), listados.estadisticas());
+    }
+
+    private JsonSerializado serializar(Object valor) {
+        try {
+            return JsonSerializado.de(objectMapper.writeValueAsBytes(valor));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.yorusito.backend.shared.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Recurso que todavía no puede atenderse; se responde 503 con {@code Retry-After}
+ * para que el cliente reintente en lugar de tratarlo como un fallo.
+ */
+public class ServicioNoDisponibleException extends ResponseStatusException {
+
+    private final Duration reintentarEn;
+
+    public ServicioNoDisponibleException(String message, Duration reintentarEn) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.reintentarEn = reintentarEn;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEn.toSeconds()));
+        return headers;
+    }
+}
@@ -71,12 +71,13 @@ public class WhatsAppService {
         int numeroItem = 1;
         
         for (CarritoItem item : items) {
-            BigDecimal subtotal = item.getProducto().getPrecio().multiply(BigDecimal.valueOf(item.getCantidad()));
+            // Precio con el que se agregó al carrito, el mismo que se cobra en el pedido
+            BigDecimal subtotal = item.getSubtotal();
             total = total.add(subtotal);
             
             mensaje.append(numeroItem).append(". *").append(item.getProducto().getNombre()).append("*\n");
             mensaje.append("   • Cantidad: ").append(item.getCantidad()).append("\n");
-            mensaje.append("   • Precio unit: S/ ").append(FORMATO_PRECIO.format(item.getProducto().getPrecio())).append("\n");
+            mensaje.append("   • Precio unit: S/ ").append(FORMATO_PRECIO.format(item.getPrecioUnitario())).append("\n");
             mensaje.append("   • Subtotal: S/ ").append(FORMATO_PRECIO.format(subtotal)).append("\n");
             
             if (item.getProducto().getDescripcion() != null && !item.getProducto().getDescripcion().isEmpty()) {
@@ -0,0 +1,89 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.dto.LimpiezaCarritosResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas",
+        "carrito.escritura.intervalo-ms=3600000",
+        "carrito.reservas.barrido-ms=3600000"
+})
+class LimpiezaCarritosIntegracionTest {
+
+    private static final long ADMIN = 1L;
+    private static final long USUARIO = 2L;
+
+    @Autowired
+    private LimpiezaCarritos limpieza;
+    @Autowired
+    private CarritosEnMemoria carritos;
+    @Autowired
+    private ReservasStock reservas;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void limpiarCarritos() {
+        carritos.descartar(ADMIN);
+        carritos.descartar(USUARIO);
+        jdbcTemplate.update("DELETE FROM carrito_items WHERE usuario_id IN (:ids)",
+                Map.of("ids", List.of(ADMIN, USUARIO)));
+        reservas.liberar(List.of(11L, 12L), ADMIN);
+        reservas.liberar(List.of(11L, 12L), USUARIO);
+    }
+
+    @Test
+    void borraLosCarritosAbandonadosYLiberaSusReservas() {
+        insertarAbandonado(USUARIO, 11L);
+        insertarAbandonado(USUARIO, 12L);
+        reservas.reservar(11L, USUARIO, 1, 100);
+
+        LimpiezaCarritosResponse respuesta = limpieza.limpiar();
+
+        assertThat(respuesta.getCarritos()).isEqualTo(1);
+        assertThat(respuesta.getFilasEliminadas()).isEqualTo(2);
+        assertThat(filas(USUARIO)).isZero();
+        assertThat(reservas.reservada(11L, USUARIO)).isZero();
+        assertThat(carritos.leer(USUARIO, CarritosEnMemoria.Carrito::cantidadLineas)).isZero();
+    }
+
+    @Test
+    void saltaLosCarritosCargadosEnMemoria() {
+        insertarAbandonado(ADMIN, 11L);
+        insertarAbandonado(USUARIO, 12L);
+        carritos.leer(ADMIN, CarritosEnMemoria.Carrito::cantidadLineas);
+
+        LimpiezaCarritosResponse respuesta = limpieza.limpiar();
+
+        assertThat(respuesta.getCarritos()).isEqualTo(1);
+        assertThat(filas(ADMIN)).isEqualTo(1);
+        assertThat(filas(USUARIO)).isZero();
+        assertThat(carritos.leer(ADMIN, CarritosEnMemoria.Carrito::cantidadLineas)).isEqualTo(1);
+    }
+
+    private void insertarAbandonado(long usuarioId, long productoId) {
+        jdbcTemplate.update("INSERT INTO carrito_items (usuario_id, producto_id, cantidad, precio_unitario, subtotal, " +
+                        "fecha_agregado) VALUES (:usuarioId, :productoId, 1, :precio, :precio, :fecha)",
+                Map.of("usuarioId", usuarioId, "productoId", productoId, "precio", BigDecimal.TEN,
+                        "fecha", Timestamp.valueOf(LocalDateTime.now().minusDays(60))));
+    }
+
+    private int filas(long usuarioId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carrito_items WHERE usuario_id = :usuarioId",
+                Map.of("usuarioId", usuarioId), Integer.class);
+    }
+}
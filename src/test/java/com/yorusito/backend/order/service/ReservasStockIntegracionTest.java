@@ -0,0 +1,186 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.auth.entity.Usuario;
+import com.yorusito.backend.auth.repository.UsuarioRepository;
+import com.yorusito.backend.order.dto.CarritoItemResponse;
+import com.yorusito.backend.order.dto.CarritoLoteRequest;
+import com.yorusito.backend.order.dto.CarritoLoteRequest.Operacion;
+import com.yorusito.backend.order.dto.CarritoLoteRequest.TipoOperacion;
+import com.yorusito.backend.order.dto.CarritoRequest;
+import com.yorusito.backend.order.repository.CarritoItemRepository;
+import com.yorusito.backend.order.repository.ReservaStockRepository;
+import com.yorusito.backend.product.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas",
+        "carrito.escritura.intervalo-ms=3600000",
+        "carrito.reservas.barrido-ms=3600000"
+})
+class ReservasStockIntegracionTest {
+
+    private static final long OTRO_USUARIO = 9_000L;
+
+    @Autowired
+    private ReservasStock reservas;
+    @Autowired
+    private ReservaStockRepository reservaStockRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Clock clock;
+    @Autowired
+    private CarritoService carritoService;
+    @Autowired
+    private CarritoItemRepository carritoItemRepository;
+    @Autowired
+    private ProductoRepository productoRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioRepository.findByEmail("usuario@demo.com").orElseThrow();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        carritoService.vaciarCarrito();
+        SecurityContextHolder.clearContext();
+        for (long productoId = 1; productoId <= 20; productoId++) {
+            reservas.liberar(productoId, OTRO_USUARIO);
+        }
+        reservas.persistirPendientes();
+    }
+
+    @Test
+    void persistirPendientesReemplazaLaFilaDeCadaReservaModificada() {
+        reservas.reservar(1L, OTRO_USUARIO, 2, 100);
+        reservas.persistirPendientes();
+        assertThat(filas(1L)).containsExactly(2);
+
+        reservas.reservar(1L, OTRO_USUARIO, 5, 100);
+        reservas.persistirPendientes();
+        assertThat(filas(1L)).containsExactly(5);
+
+        reservas.liberar(1L, OTRO_USUARIO);
+        reservas.persistirPendientes();
+        assertThat(filas(1L)).isEmpty();
+    }
+
+    @Test
+    void recuperarCargaLasVigentesYBorraLasVencidas() {
+        LocalDateTime ahora = LocalDateTime.now(clock);
+        insertar(2L, 3, ahora.plusMinutes(5));
+        insertar(3L, 4, ahora.minusMinutes(1));
+
+        ReservasStock recuperadas = new ReservasStock(reservaStockRepository, jdbcTemplate, transactionTemplate, clock, 15);
+        recuperadas.recuperar();
+
+        assertThat(recuperadas.reservada(2L, OTRO_USUARIO)).isEqualTo(3);
+        assertThat(recuperadas.reservada(3L, OTRO_USUARIO)).isZero();
+        assertThat(filas(3L)).isEmpty();
+        jdbcTemplate.update("DELETE FROM reservas_stock WHERE usuario_id = :usuarioId", Map.of("usuarioId", OTRO_USUARIO));
+    }
+
+    @Test
+    void aplicarOperacionesRestauraLasReservasSiUnaNoAlcanza() {
+        int stockAgotado = productoRepository.findById(5L).orElseThrow().getStock();
+        carritoService.aplicarOperaciones(lote(new Operacion(TipoOperacion.AGREGAR, 4L, 1)));
+        reservas.reservar(5L, OTRO_USUARIO, stockAgotado, stockAgotado);
+
+        assertThatThrownBy(() -> carritoService.aplicarOperaciones(lote(
+                new Operacion(TipoOperacion.ESTABLECER, 4L, 2),
+                new Operacion(TipoOperacion.AGREGAR, 5L, 1))))
+                .hasMessageContaining("Stock insuficiente");
+
+        assertThat(reservas.reservada(4L, usuario.getId())).isEqualTo(1);
+        assertThat(reservas.reservada(5L, usuario.getId())).isZero();
+        assertThat(carritoService.obtenerCarrito().getItems())
+                .extracting(CarritoItemResponse::getCantidad)
+                .containsExactly(1);
+    }
+
+    @Test
+    void aplicarOperacionesPermiteReducirSinStockNiProductoActivo() {
+        int stock = productoRepository.findById(8L).orElseThrow().getStock();
+        carritoService.aplicarOperaciones(lote(new Operacion(TipoOperacion.AGREGAR, 8L, 5)));
+        reservas.reservar(8L, OTRO_USUARIO, stock - 5, stock);
+        jdbcTemplate.update("UPDATE productos SET activo = FALSE WHERE id = 8", Map.of());
+        try {
+            carritoService.aplicarOperaciones(lote(new Operacion(TipoOperacion.ESTABLECER, 8L, 3)));
+            assertThat(reservas.reservada(8L, usuario.getId())).isEqualTo(3);
+
+            // Quitar y volver a agregar menos de lo que había también es una reducción
+            carritoService.aplicarOperaciones(lote(
+                    new Operacion(TipoOperacion.QUITAR, 8L, null),
+                    new Operacion(TipoOperacion.AGREGAR, 8L, 1)));
+            assertThat(reservas.reservada(8L, usuario.getId())).isEqualTo(1);
+            assertThat(carritoService.obtenerCarrito().getItems())
+                    .extracting(CarritoItemResponse::getCantidad)
+                    .containsExactly(1);
+
+            assertThatThrownBy(() -> carritoService.aplicarOperaciones(lote(
+                    new Operacion(TipoOperacion.ESTABLECER, 8L, 2))))
+                    .hasMessageContaining("no está disponible");
+            assertThat(reservas.reservada(8L, usuario.getId())).isEqualTo(1);
+        } finally {
+            jdbcTemplate.update("UPDATE productos SET activo = TRUE WHERE id = 8", Map.of());
+        }
+    }
+
+    @Test
+    void vaciarTrasPedidoLiberaTambienLasLineasSoloEnMemoria() {
+        carritoService.aplicarOperaciones(lote(new Operacion(TipoOperacion.AGREGAR, 6L, 1)));
+        // Sin volcado: la línea solo existe en memoria
+        carritoService.agregarProducto(new CarritoRequest(7L, 2));
+        assertThat(carritoItemRepository.findByUsuarioId(usuario.getId())).hasSize(1);
+
+        carritoService.vaciarTrasPedido(usuario.getId(), Set.of(6L));
+
+        assertThat(reservas.reservada(6L, usuario.getId())).isZero();
+        assertThat(reservas.reservada(7L, usuario.getId())).isZero();
+        assertThat(carritoItemRepository.findByUsuarioId(usuario.getId())).isEmpty();
+    }
+
+    private List<Integer> filas(Long productoId) {
+        return jdbcTemplate.queryForList(
+                "SELECT cantidad FROM reservas_stock WHERE usuario_id = :usuarioId AND producto_id = :productoId",
+                Map.of("usuarioId", OTRO_USUARIO, "productoId", productoId), Integer.class);
+    }
+
+    private void insertar(Long productoId, int cantidad, LocalDateTime expiraEn) {
+        jdbcTemplate.update("INSERT INTO reservas_stock (usuario_id, producto_id, cantidad, expira_en) " +
+                        "VALUES (:usuarioId, :productoId, :cantidad, :expiraEn)",
+                Map.of("usuarioId", OTRO_USUARIO, "productoId", productoId, "cantidad", cantidad,
+                        "expiraEn", Timestamp.valueOf(expiraEn)));
+    }
+
+    private static CarritoLoteRequest lote(Operacion... operaciones) {
+        return CarritoLoteRequest.builder().operaciones(List.of(operaciones)).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.yorusito.backend.order.service;
+
+import com.yorusito.backend.order.repository.ReservaStockRepository;
+import com.yorusito.backend.support.RelojManual;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReservasStockTest {
+
+    private static final long PRODUCTO = 1L;
+    private static final long ANA = 10L;
+    private static final long LUIS = 20L;
+
+    private final RelojManual reloj = new RelojManual(Instant.parse("2026-01-01T00:00:00Z"));
+    private final ReservasStock reservas = new ReservasStock(mock(ReservaStockRepository.class),
+            mock(NamedParameterJdbcTemplate.class), mock(TransactionTemplate.class), reloj, 15);
+
+    @Test
+    void rechazaLoQueYaTienenReservadoOtrosUsuarios() {
+        assertThat(reservas.reservar(PRODUCTO, ANA, 3, 5)).isTrue();
+
+        assertThat(reservas.reservar(PRODUCTO, LUIS, 3, 5)).isFalse();
+        assertThat(reservas.reservada(PRODUCTO, LUIS)).isZero();
+        assertThat(reservas.reservar(PRODUCTO, LUIS, 2, 5)).isTrue();
+
+        // La reserva propia no cuenta contra sí misma, la de Luis sí
+        assertThat(reservas.reservar(PRODUCTO, ANA, 4, 5)).isFalse();
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isEqualTo(3);
+        assertThat(reservas.reservar(PRODUCTO, ANA, 1, 5)).isTrue();
+
+        assertThat(reservas.reservadas(PRODUCTO)).isEqualTo(3);
+        assertThat(reservas.reservadasPorOtros(PRODUCTO, LUIS)).isEqualTo(1);
+    }
+
+    @Test
+    void lasReservasVencenAlCumplirseElTtl() {
+        reservas.reservar(PRODUCTO, ANA, 5, 5);
+
+        reloj.avanzar(Duration.ofMinutes(15).minusMillis(1));
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isEqualTo(5);
+        assertThat(reservas.reservar(PRODUCTO, LUIS, 1, 5)).isFalse();
+
+        reloj.avanzar(Duration.ofMillis(1));
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isZero();
+        assertThat(reservas.reservadasPorOtros(PRODUCTO, LUIS)).isZero();
+        assertThat(reservas.reservar(PRODUCTO, LUIS, 5, 5)).isTrue();
+    }
+
+    @Test
+    void reservarDeNuevoRenuevaElVencimiento() {
+        reservas.reservar(PRODUCTO, ANA, 2, 5);
+        reloj.avanzar(Duration.ofMinutes(10));
+        reservas.reservar(PRODUCTO, ANA, 2, 5);
+
+        reloj.avanzar(Duration.ofMinutes(10));
+
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isEqualTo(2);
+    }
+
+    @Test
+    void barrerVencidasSoloQuitaLasVencidas() {
+        reservas.reservar(PRODUCTO, ANA, 2, 10);
+        reloj.avanzar(Duration.ofMinutes(10));
+        reservas.reservar(2L, LUIS, 1, 10);
+        reloj.avanzar(Duration.ofMinutes(6));
+
+        reservas.barrerVencidas();
+
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isZero();
+        assertThat(reservas.reservada(2L, LUIS)).isEqualTo(1);
+    }
+
+    @Test
+    void restaurarIgnoraElStockYConCeroLibera() {
+        reservas.reservar(PRODUCTO, LUIS, 4, 5);
+
+        reservas.restaurar(PRODUCTO, ANA, 3);
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isEqualTo(3);
+
+        reservas.restaurar(PRODUCTO, ANA, 0);
+        assertThat(reservas.reservada(PRODUCTO, ANA)).isZero();
+        assertThat(reservas.reservadas(PRODUCTO)).isEqualTo(4);
+    }
+
+    @Test
+    void liberarAlConfirmarSinTransaccionLiberaDeInmediato() {
+        reservas.reservar(PRODUCTO, ANA, 1, 5);
+        reservas.reservar(2L, ANA, 1, 5);
+
+        reservas.liberarAlConfirmar(List.of(PRODUCTO, 2L), ANA);
+
+        assertThat(reservas.reservadas(PRODUCTO)).isZero();
+        assertThat(reservas.reservadas(2L)).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.entity.Categoria;
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.event.VentasRegistradasEvent;
+import com.yorusito.backend.product.ranking.PopularidadProductos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceAutocompletadoTest {
+
+    private final Map<Long, Double> puntajes = new HashMap<>();
+    private IndiceAutocompletado indice;
+
+    @BeforeEach
+    void setUp() {
+        PopularidadProductos popularidad = mock(PopularidadProductos.class);
+        when(popularidad.puntaje(anyLong()))
+                .thenAnswer(invocacion -> puntajes.getOrDefault(invocacion.<Long>getArgument(0), 0.0));
+        indice = new IndiceAutocompletado(popularidad);
+    }
+
+    @Test
+    void sugiereDesdeCualquierPalabraDelNombre() {
+        indice.reconstruir(List.of(producto(1L, "Polo Básico Blanco"), producto(2L, "Polera Estampada")),
+                List.of(), List.of());
+
+        assertThat(ids(indice.sugerir("bla", 10))).containsExactly(1L);
+        assertThat(indice.sugerir("bla", 10).get(0).texto()).isEqualTo("Polo Básico Blanco");
+        assertThat(ids(indice.sugerir("basico bl", 10))).containsExactly(1L);
+        assertThat(ids(indice.sugerir("BÁSICO", 10))).containsExactly(1L);
+        assertThat(indice.sugerir("lanco", 10)).isEmpty();
+    }
+
+    @Test
+    void filtraPrefijosMasLargosQueLaProfundidadDelTrie() {
+        indice.reconstruir(List.of(
+                producto(1L, "Pantalon Jean"),
+                producto(2L, "Pantalones Cortos"),
+                producto(3L, "Polera Estampada Flores")), List.of(), List.of());
+
+        assertThat(ids(indice.sugerir("pantalon", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(indice.sugerir("pantalone", 10))).containsExactly(2L);
+        assertThat(ids(indice.sugerir("pantalon j", 10))).containsExactly(1L);
+        assertThat(ids(indice.sugerir("polera estampada fl", 10))).containsExactly(3L);
+        assertThat(indice.sugerir("polera estampadx", 10)).isEmpty();
+    }
+
+    @Test
+    void ordenaPorPesoYReponderaTrasRegistrarVentas() {
+        puntajes.put(1L, 3.0);
+        puntajes.put(2L, 2.0);
+        puntajes.put(3L, 1.0);
+        indice.reconstruir(List.of(
+                producto(1L, "Polo Rojo"),
+                producto(2L, "Polo Azul"),
+                producto(3L, "Polo Verde")), List.of(), List.of());
+        assertThat(ids(indice.sugerir("polo", 10))).containsExactly(1L, 2L, 3L);
+
+        puntajes.put(3L, 5.0);
+        indice.alRegistrarVentas(new VentasRegistradasEvent(Map.of(3L, 2), LocalDateTime.now()));
+
+        assertThat(ids(indice.sugerir("polo", 10))).containsExactly(3L, 1L, 2L);
+        assertThat(ids(indice.sugerir("p", 2))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void pesaCategoriasYColeccionesConSusProductos() {
+        Categoria poleras = Categoria.builder().id(10L).nombre("Poleras").build();
+        Categoria polos = Categoria.builder().id(11L).nombre("Polos").build();
+        Coleccion verano = Coleccion.builder().id(20L).nombre("Polos de Verano").activa(true).build();
+        Coleccion inactiva = Coleccion.builder().id(21L).nombre("Polos Antiguos").activa(false).build();
+        puntajes.put(1L, 4.0);
+        Producto producto = producto(1L, "Camisa");
+        producto.setCategoria(polos);
+        producto.setColeccion(verano);
+
+        indice.reconstruir(List.of(producto), List.of(poleras, polos), List.of(verano, inactiva));
+
+        assertThat(indice.sugerir("pol", 10))
+                .extracting(IndiceAutocompletado.Sugerencia::texto)
+                .containsExactly("Polos", "Polos de Verano", "Poleras");
+    }
+
+    @Test
+    void eliminarRestauraLasMejoresDeCadaNodo() {
+        List<Producto> activos = new ArrayList<>();
+        for (long id = 1; id <= IndiceAutocompletado.MAXIMO_SUGERENCIAS + 2; id++) {
+            puntajes.put(id, (double) id);
+            activos.add(producto(id, "Polo " + id));
+        }
+        indice.reconstruir(activos, List.of(), List.of());
+        assertThat(ids(indice.sugerir("polo", 10))).containsExactly(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L);
+
+        indice.eliminar(12L);
+        indice.eliminar(7L);
+
+        assertThat(ids(indice.sugerir("polo", 10))).containsExactly(11L, 10L, 9L, 8L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(ids(indice.sugerir("p", 10))).containsExactly(11L, 10L, 9L, 8L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(indice.sugerir("polo 12", 10)).isEmpty();
+    }
+
+    @Test
+    void indexarUnProductoInactivoLoQuita() {
+        indice.reconstruir(List.of(producto(1L, "Polo Rojo"), producto(2L, "Polo Azul")), List.of(), List.of());
+
+        Producto inactivo = producto(1L, "Polo Rojo");
+        inactivo.setActivo(false);
+        indice.indexar(inactivo);
+        indice.indexar(producto(3L, "Polo Negro"));
+
+        assertThat(ids(indice.sugerir("polo", 10))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(indice.sugerir("rojo", 10)).isEmpty();
+    }
+
+    private static Producto producto(Long id, String nombre) {
+        return Producto.builder().id(id).nombre(nombre).activo(true).build();
+    }
+
+    private static List<Long> ids(List<IndiceAutocompletado.Sugerencia> sugerencias) {
+        return sugerencias.stream().map(IndiceAutocompletado.Sugerencia::id).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.yorusito.backend.product.search;
+
+import com.yorusito.backend.product.entity.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceBusquedaProductosTest {
+
+    private IndiceBusquedaProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaProductos();
+        indice.reconstruir(List.of(
+                producto(1L, "Polera Estampada Flores", "Polera de algodón"),
+                producto(2L, "Pantalón Jean Clásico", "Jean azul"),
+                producto(3L, "Polo Básico Blanco", "Polo de algodón"),
+                producto(4L, "Zapatillas Urbanas", "Zapatillas blancas")));
+    }
+
+    @Test
+    void distanciaAcotadaCuentaEdicionesYTransposiciones() {
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("polera", "polera", 2)).isZero();
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("polo", "pola", 2)).isEqualTo(1);
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("jaen", "jean", 1)).isEqualTo(1);
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("poleron", "polera", 2)).isEqualTo(2);
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("", "polo", 4)).isEqualTo(4);
+    }
+
+    @Test
+    void distanciaAcotadaDevuelveMaximaMasUnoAlSuperarElLimite() {
+        // Ninguna letra coincide: la primera fila ya supera el límite y se abandona
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("abcdef", "uvwxyz", 1)).isEqualTo(2);
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("polera", "zapatillas", 2)).isEqualTo(3);
+        // Las filas quedan dentro del límite pero la distancia final lo supera
+        assertThat(IndiceBusquedaProductos.distanciaAcotada("polo", "polosxyz", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void corrigePalabrasConErroresDeTipeo() {
+        assertThat(indice.corregir("poleron"))
+                .extracting(IndiceBusquedaProductos.Correccion::palabra)
+                .first().isEqualTo("polera");
+        assertThat(indice.corregir("zapatilas"))
+                .extracting(IndiceBusquedaProductos.Correccion::palabra)
+                .containsExactly("zapatillas");
+    }
+
+    @Test
+    void corrigeTransposicionesSinTrigramasEnComun() {
+        List<IndiceBusquedaProductos.Correccion> correcciones = indice.corregir("jaen");
+
+        assertThat(correcciones).extracting(IndiceBusquedaProductos.Correccion::palabra).containsExactly("jean");
+        assertThat(correcciones.get(0).distancia()).isEqualTo(1);
+        assertThat(correcciones.get(0).similitud()).isEqualTo(0.75);
+    }
+
+    @Test
+    void noCorrigePalabrasMasCortasQueElMinimo() {
+        assertThat(indice.corregir("jen")).isEmpty();
+        assertThat(indice.buscarAproximado("jen")).isEmpty();
+    }
+
+    @Test
+    void noCorrigeMasAllaDeLaDistanciaMaxima() {
+        // Con cinco letras solo se admite una edición
+        assertThat(indice.corregir("plloo")).isEmpty();
+        assertThat(indice.corregir("xyzwq")).isEmpty();
+    }
+
+    @Test
+    void buscarAproximadoUsaLasCorreccionesSoloSiNoHayCoincidencias() {
+        assertThat(indice.buscar("poleron")).isEmpty();
+        assertThat(indice.buscarAproximado("poleron"))
+                .extracting(ResultadoBusqueda::productoId)
+                .containsExactly(1L);
+        assertThat(indice.buscarAproximado("jaen azul"))
+                .extracting(ResultadoBusqueda::productoId)
+                .containsExactly(2L);
+        assertThat(indice.buscarAproximado("polo"))
+                .extracting(ResultadoBusqueda::productoId)
+                .containsExactly(3L);
+    }
+
+    private static Producto producto(Long id, String nombre, String descripcion) {
+        return Producto.builder().id(id).nombre(nombre).descripcion(descripcion).activo(true).build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.ImportacionResultadoResponse;
+import com.yorusito.backend.product.dto.ImportacionResultadoResponse.ErrorFila;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.service.ImportacionProductosService.FormatoImportacion;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas",
+        "carrito.escritura.intervalo-ms=3600000",
+        "carrito.reservas.barrido-ms=3600000"
+})
+class ImportacionProductosServiceIntegracionTest {
+
+    private static final String PREFIJO = "Importado ";
+
+    @Autowired
+    private ImportacionProductosService importacion;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void borrarImportados() {
+        if (jdbcTemplate.update("DELETE FROM productos WHERE nombre LIKE ?", PREFIJO + "%") > 0) {
+            eventPublisher.publishEvent(CatalogoModificadoEvent.completo());
+        }
+    }
+
+    @Test
+    void importaCsvYReportaLasFilasInvalidas() {
+        String csv = "\uFEFFnombre,descripcion,precio,stock,categoria_id,coleccion_id\r\n"
+                + "\"Importado polo, rojo\",\"Algodón \"\"pima\"\"\",29.90,10,1,\r\n"
+                + "Importado sin precio,,,5,1,\r\n"
+                + "Importado precio texto,,abc,5,1,\r\n"
+                + "Importado categoría,,10,5,999,\r\n"
+                + "\r\n"
+                + "Importado jean,\"dos\nlíneas\",89.50,3,3,\r\n";
+
+        ImportacionResultadoResponse resultado = importar(csv, FormatoImportacion.CSV);
+
+        assertThat(resultado.getProcesadas()).isEqualTo(5);
+        assertThat(resultado.getImportadas()).isEqualTo(2);
+        assertThat(resultado.getFallidas()).isEqualTo(3);
+        assertThat(resultado.getErrores()).extracting(ErrorFila::getFila).containsExactlyInAnyOrder(2, 3, 4);
+        assertThat(mensaje(resultado, 2)).isEqualTo("El precio es obligatorio");
+        assertThat(mensaje(resultado, 3)).contains("precio").contains("abc");
+        assertThat(mensaje(resultado, 4)).isEqualTo("Categoría no encontrada: 999");
+
+        Map<String, Object> polo = jdbcTemplate.queryForMap(
+                "SELECT descripcion, precio, stock, coleccion_id FROM productos WHERE nombre = ?",
+                "Importado polo, rojo");
+        assertThat(polo.get("DESCRIPCION")).isEqualTo("Algodón \"pima\"");
+        assertThat((BigDecimal) polo.get("PRECIO")).isEqualByComparingTo("29.90");
+        assertThat(polo.get("STOCK")).isEqualTo(10);
+        assertThat(polo.get("COLECCION_ID")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT descripcion FROM productos WHERE nombre = ?",
+                String.class, "Importado jean")).isEqualTo("dos\nlíneas");
+    }
+
+    @Test
+    void csvSinColumnasObligatoriasSeRechaza() {
+        assertThatThrownBy(() -> importar("nombre,precio\nImportado x,10\n", FormatoImportacion.CSV))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("stock")
+                .hasMessageContaining("categoria_id");
+    }
+
+    @Test
+    void importaNdjsonYReportaLasFilasInvalidas() {
+        String ndjson = """
+                {"nombre":"Importado polera","precio":45.00,"stock":7,"categoria_id":2}
+                {"nombre":"Importado roto",
+                {"nombre":"","precio":45.00,"stock":-1,"categoria_id":2}
+
+                {"nombre":"Importado camisa","precio":60,"stock":2,"categoria_id":4}
+                """;
+
+        ImportacionResultadoResponse resultado = importar(ndjson, FormatoImportacion.NDJSON);
+
+        assertThat(resultado.getProcesadas()).isEqualTo(4);
+        assertThat(resultado.getImportadas()).isEqualTo(2);
+        assertThat(resultado.getFallidas()).isEqualTo(2);
+        assertThat(mensaje(resultado, 2)).startsWith("JSON inválido");
+        assertThat(mensaje(resultado, 3)).isEqualTo("El nombre es obligatorio; El stock no puede ser negativo");
+        assertThat(importados()).containsExactlyInAnyOrder("Importado polera", "Importado camisa");
+    }
+
+    @Test
+    void unaFilaRechazadaPorLaBaseDeDatosDescartaSuLote() {
+        String ndjson = """
+                {"nombre":"Importado válido","precio":10,"stock":1,"categoria_id":1}
+                {"nombre":"Importado %s","precio":10,"stock":1,"categoria_id":1}
+                {"nombre":"Importado sin categoría","precio":10,"stock":1,"categoria_id":999}
+                """.formatted("x".repeat(300));
+
+        ImportacionResultadoResponse resultado = importar(ndjson, FormatoImportacion.NDJSON);
+
+        assertThat(resultado.getProcesadas()).isEqualTo(3);
+        assertThat(resultado.getImportadas()).isZero();
+        assertThat(resultado.getFallidas()).isEqualTo(3);
+        assertThat(mensaje(resultado, 1)).startsWith("Lote rechazado por la base de datos");
+        assertThat(mensaje(resultado, 2)).startsWith("Lote rechazado por la base de datos");
+        assertThat(mensaje(resultado, 3)).isEqualTo("Categoría no encontrada: 999");
+        assertThat(importados()).isEmpty();
+    }
+
+    private ImportacionResultadoResponse importar(String contenido, FormatoImportacion formato) {
+        return importacion.importar(new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+
+    private List<String> importados() {
+        return jdbcTemplate.queryForList("SELECT nombre FROM productos WHERE nombre LIKE ?", String.class,
+                PREFIJO + "%");
+    }
+
+    private static String mensaje(ImportacionResultadoResponse resultado, int fila) {
+        return resultado.getErrores().stream()
+                .filter(error -> error.getFila().equals(fila))
+                .map(ErrorFila::getMensaje)
+                .findFirst()
+                .orElseThrow();
+    }
+}
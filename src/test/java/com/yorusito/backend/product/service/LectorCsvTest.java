@@ -0,0 +1,72 @@
+package com.yorusito.backend.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LectorCsvTest {
+
+    @Test
+    void separaCamposSimples() throws IOException {
+        assertThat(leer("a,b,c\n1,2,3\n")).containsExactly(List.of("a", "b", "c"), List.of("1", "2", "3"));
+    }
+
+    @Test
+    void respetaComasEntreComillas() throws IOException {
+        assertThat(leer("\"Polo, básico\",19.90\n"))
+                .containsExactly(List.of("Polo, básico", "19.90"));
+    }
+
+    @Test
+    void desescapaComillasDobles() throws IOException {
+        assertThat(leer("\"Jean \"\"slim\"\"\",\"\"\"\"\n"))
+                .containsExactly(List.of("Jean \"slim\"", "\""));
+    }
+
+    @Test
+    void conservaSaltosDeLineaEntreComillas() throws IOException {
+        assertThat(leer("\"línea 1\r\nlínea 2\",x\r\n"))
+                .containsExactly(List.of("línea 1\r\nlínea 2", "x"));
+    }
+
+    @Test
+    void aceptaFinesDeLineaCrlf() throws IOException {
+        assertThat(leer("a,b\r\n1,2\r\n")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+    }
+
+    @Test
+    void ultimoRegistroSinSaltoFinalYCamposVacios() throws IOException {
+        assertThat(leer("a,,\n,b")).containsExactly(List.of("a", "", ""), List.of("", "b"));
+    }
+
+    @Test
+    void comillaFinalAlCerrarElArchivo() throws IOException {
+        assertThat(leer("a,\"b\"")).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    void lineaVaciaEsUnRegistroDeUnCampoVacio() throws IOException {
+        assertThat(leer("a\n\nb\n")).containsExactly(List.of("a"), List.of(""), List.of("b"));
+    }
+
+    @Test
+    void archivoVacioNoTieneRegistros() throws IOException {
+        assertThat(leer("")).isEmpty();
+    }
+
+    private static List<List<String>> leer(String contenido) throws IOException {
+        LectorCsv lector = new LectorCsv(new BufferedReader(new StringReader(contenido)));
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro;
+        while ((registro = lector.siguiente()) != null) {
+            registros.add(registro);
+        }
+        return registros;
+    }
+}
@@ -0,0 +1,78 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.entity.Producto;
+import com.yorusito.backend.product.service.ProductoCursor.OrdenCursor;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductoCursorTest {
+
+    @Test
+    void codificaYDecodificaUnCursorPorFechaTruncadoAMicrosegundos() {
+        Producto producto = producto(7L, LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789), "19.90");
+
+        ProductoCursor cursor = ProductoCursor.desde(OrdenCursor.FECHA_ASC, producto);
+        ProductoCursor leido = ProductoCursor.decodificar(cursor.codificar(), OrdenCursor.FECHA_ASC);
+
+        assertThat(leido).isEqualTo(new ProductoCursor(OrdenCursor.FECHA_ASC,
+                LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), null, 7L));
+    }
+
+    @Test
+    void codificaYDecodificaUnCursorPorPrecio() {
+        Producto producto = producto(9L, LocalDateTime.of(2024, 3, 1, 10, 0), "120.50");
+
+        String texto = ProductoCursor.desde(OrdenCursor.PRECIO_DESC, producto).codificar();
+
+        assertThat(texto).doesNotContain("=", "+", "/");
+        assertThat(ProductoCursor.decodificar(texto, OrdenCursor.PRECIO_DESC))
+                .isEqualTo(new ProductoCursor(OrdenCursor.PRECIO_DESC, null, new BigDecimal("120.50"), 9L));
+    }
+
+    @Test
+    void rechazaUnCursorDeOtroOrden() {
+        String texto = ProductoCursor.desde(OrdenCursor.PRECIO_ASC,
+                producto(1L, LocalDateTime.of(2024, 1, 1, 0, 0), "10.00")).codificar();
+
+        assertThatThrownBy(() -> ProductoCursor.decodificar(texto, OrdenCursor.PRECIO_DESC))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El cursor no corresponde al orden solicitado");
+    }
+
+    @Test
+    void rechazaCursoresMalformados() {
+        Map<String, OrdenCursor> cursores = Map.of(
+                "no es base64!", OrdenCursor.FECHA_DESC,
+                base64("FECHA_DESC|2024-01-01T00:00"), OrdenCursor.FECHA_DESC,
+                base64("DESCONOCIDO|1|1"), OrdenCursor.FECHA_DESC,
+                base64("FECHA_DESC|ayer|1"), OrdenCursor.FECHA_DESC,
+                base64("PRECIO_ASC|barato|1"), OrdenCursor.PRECIO_ASC,
+                base64("PRECIO_ASC|10.00|uno"), OrdenCursor.PRECIO_ASC);
+
+        cursores.forEach((texto, orden) -> assertThatThrownBy(() -> ProductoCursor.decodificar(texto, orden))
+                .as(texto)
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor inválido"));
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Producto producto(Long id, LocalDateTime fechaCreacion, String precio) {
+        return Producto.builder()
+                .id(id)
+                .fechaCreacion(fechaCreacion)
+                .precio(new BigDecimal(precio))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.ProductoResumenResponse;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas",
+        "carrito.escritura.intervalo-ms=3600000",
+        "carrito.reservas.barrido-ms=3600000"
+})
+class ProductoResumenServiceIntegracionTest {
+
+    @Autowired
+    private ProductoResumenService productoResumenService;
+
+    @Test
+    void ordenaPorCamposDelResumen() {
+        List<BigDecimal> precios = productoResumenService.listar(null, "precio",
+                        PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "precio")))
+                .map(ProductoResumenResponse::getPrecio)
+                .getContent();
+
+        assertThat(precios).isNotEmpty().isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void aceptaElNombreDelJsonYElDeLaPropiedad() {
+        List<String> porJson = nombres(Sort.by("categoria_nombre", "id"));
+        List<String> porPropiedad = nombres(Sort.by("categoriaNombre", "id"));
+
+        assertThat(porJson).isNotEmpty().isSortedAccordingTo(Comparator.naturalOrder()).isEqualTo(porPropiedad);
+    }
+
+    @Test
+    void rechazaOrdenarPorCamposFueraDelResumen() {
+        for (String propiedad : List.of("descripcion", "coleccion.nombre", "inexistente")) {
+            assertThatThrownBy(() -> productoResumenService.listar(null, null,
+                    PageRequest.of(0, 10, Sort.by(propiedad))))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining(propiedad);
+        }
+    }
+
+    private List<String> nombres(Sort sort) {
+        return productoResumenService.listar(null, "categoria_nombre", PageRequest.of(0, 50, sort))
+                .map(ProductoResumenResponse::getCategoriaNombre)
+                .getContent();
+    }
+}
@@ -0,0 +1,139 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.dto.PaginaCursorResponse;
+import com.yorusito.backend.product.dto.ProductoResponse;
+import com.yorusito.backend.shared.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservas",
+        "carrito.escritura.intervalo-ms=3600000",
+        "carrito.reservas.barrido-ms=3600000"
+})
+class ProductoServiceCursorIntegracionTest {
+
+    private static final String MARCA = "Cursorprueba";
+    private static final LocalDateTime ANTES = LocalDateTime.of(2020, 1, 1, 9, 0, 0, 500_000);
+    private static final LocalDateTime EMPATE = LocalDateTime.of(2020, 1, 1, 10, 0, 0, 123_456_000);
+    private static final LocalDateTime DESPUES = LocalDateTime.of(2020, 1, 2, 10, 0);
+
+    @Autowired
+    private ProductoService productoService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Fila> filas = new ArrayList<>();
+
+    @BeforeEach
+    void insertarProductos() {
+        // Tres productos comparten fecha y varios comparten precio, para que el id desempate
+        insertar(EMPATE, "10.00");
+        insertar(EMPATE, "20.00");
+        insertar(ANTES, "20.00");
+        insertar(EMPATE, "10.00");
+        insertar(DESPUES, "10.00");
+        insertar(DESPUES, "30.00");
+        insertar(EMPATE, "20.00");
+    }
+
+    @AfterEach
+    void borrarProductos() {
+        jdbcTemplate.update("DELETE FROM productos WHERE nombre LIKE ?", MARCA + "%");
+    }
+
+    @Test
+    void recorrePorFechaDescendenteConEmpates() {
+        assertThat(recorrer("fecha", "desc")).containsExactlyElementsOf(esperado(
+                Comparator.comparing(Fila::fecha).thenComparing(Fila::id).reversed()));
+    }
+
+    @Test
+    void recorrePorFechaAscendenteConEmpates() {
+        assertThat(recorrer("fecha", "asc")).containsExactlyElementsOf(esperado(
+                Comparator.comparing(Fila::fecha).thenComparing(Fila::id)));
+    }
+
+    @Test
+    void recorrePorPrecioAscendenteConEmpates() {
+        assertThat(recorrer("precio", "asc")).containsExactlyElementsOf(esperado(
+                Comparator.comparing(Fila::precio).thenComparing(Fila::id)));
+    }
+
+    @Test
+    void recorrePorPrecioDescendenteConEmpates() {
+        assertThat(recorrer("precio", "desc")).containsExactlyElementsOf(esperado(
+                Comparator.comparing(Fila::precio).thenComparing(Fila::id).reversed()));
+    }
+
+    @Test
+    void rechazaUnCursorEmitidoParaOtroOrden() {
+        String cursor = pagina("precio", "asc", null).getSiguienteCursor();
+
+        assertThat(cursor).isNotNull();
+        assertThatThrownBy(() -> pagina("precio", "desc", cursor))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El cursor no corresponde al orden solicitado");
+        assertThatThrownBy(() -> pagina("fecha", "asc", cursor))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("El cursor no corresponde al orden solicitado");
+    }
+
+    private List<Long> recorrer(String ordenarPor, String direccion) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursorResponse<ProductoResponse> pagina = pagina(ordenarPor, direccion, cursor);
+            assertThat(pagina.getContenido()).hasSizeLessThanOrEqualTo(2);
+            pagina.getContenido().forEach(producto -> ids.add(producto.getId()));
+            cursor = pagina.getSiguienteCursor();
+            assertThat(cursor != null).isEqualTo(pagina.getTieneMas());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private PaginaCursorResponse<ProductoResponse> pagina(String ordenarPor, String direccion, String cursor) {
+        return productoService.busquedaAvanzadaPorCursor(MARCA, null, null, null, null, ordenarPor, direccion,
+                cursor, 2);
+    }
+
+    private List<Long> esperado(Comparator<Fila> orden) {
+        return filas.stream().sorted(orden).map(Fila::id).toList();
+    }
+
+    private void insertar(LocalDateTime fecha, String precio) {
+        KeyHolder clave = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO productos (nombre, precio, stock, categoria_id, activo, fecha_creacion, " +
+                    "fecha_actualizacion) VALUES (?, ?, 5, 1, TRUE, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, MARCA + " " + filas.size());
+            ps.setBigDecimal(2, new BigDecimal(precio));
+            ps.setTimestamp(3, Timestamp.valueOf(fecha));
+            ps.setTimestamp(4, Timestamp.valueOf(fecha));
+            return ps;
+        }, clave);
+        filas.add(new Fila(clave.getKey().longValue(), fecha, new BigDecimal(precio)));
+    }
+
+    private record Fila(Long id, LocalDateTime fecha, BigDecimal precio) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.yorusito.backend.product.service;
+
+import com.yorusito.backend.product.search.IndiceFiltrosProductos;
+import com.yorusito.backend.shared.exception.ServicioNoDisponibleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ProductoServiceFacetasTest {
+
+    @Mock
+    private IndiceFiltrosProductos indiceFiltros;
+
+    @InjectMocks
+    private ProductoService productoService;
+
+    @Test
+    void facetasConIndiceEnConstruccionPidenReintentar() {
+        when(indiceFiltros.estaListo()).thenReturn(false);
+
+        assertThatThrownBy(() -> productoService.obtenerFacetas(null, null, null, null, null, null))
+                .isInstanceOfSatisfying(ServicioNoDisponibleException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(503);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+                });
+    }
+
+    @Test
+    void laRespuestaEs503ConRetryAfter() throws Exception {
+        when(indiceFiltros.estaListo()).thenReturn(false);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FacetasController(productoService)).build();
+
+        mockMvc.perform(get("/facetas"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @RestController
+    static class FacetasController {
+
+        private final ProductoService productoService;
+
+        FacetasController(ProductoService productoService) {
+            this.productoService = productoService;
+        }
+
+        @GetMapping("/facetas")
+        Object facetas() {
+            return productoService.obtenerFacetas(null, null, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.yorusito.backend.product.vigencia;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporizadoresTest {
+
+    private static final long TICK_MS = 1000;
+    private static final int RANURAS = 8;
+
+    private final RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(TICK_MS, RANURAS, 0);
+
+    @Test
+    void redondeaHaciaArribaParaNoVencerAntesDeTiempo() {
+        rueda.programar("a", 1500);
+        rueda.programar("b", 2000);
+
+        assertThat(rueda.avanzar(1999)).isEmpty();
+        assertThat(rueda.avanzar(2000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(rueda.pendientes()).isZero();
+    }
+
+    @Test
+    void unInstanteYaPasadoVenceEnElProximoAvance() {
+        rueda.avanzar(5000);
+        rueda.programar("a", 1000);
+
+        assertThat(rueda.avanzar(5999)).isEmpty();
+        assertThat(rueda.avanzar(6000)).containsExactly("a");
+    }
+
+    @Test
+    void esperaLasVueltasNecesariasEnSuRanura() {
+        // Tick 10: la ranura 2 pasa por el tick 2 antes de que le toque
+        rueda.programar("a", 10_000);
+
+        for (long ahora = TICK_MS; ahora < 10_000; ahora += TICK_MS) {
+            assertThat(rueda.avanzar(ahora)).as("avance a %d ms", ahora).isEmpty();
+        }
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(rueda.avanzar(10_000)).containsExactly("a");
+    }
+
+    @Test
+    void seRecuperaTrasAtrasarseMasDeUnaVuelta() {
+        rueda.programar("a", 3000);
+        rueda.programar("b", 14_000);
+        rueda.programar("c", 20_000);
+
+        assertThat(rueda.avanzar(15_000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(rueda.avanzar(19_000)).isEmpty();
+        assertThat(rueda.avanzar(20_000)).containsExactly("c");
+    }
+
+    @Test
+    void cancelarQuitaTodosLosVencimientosDeLaClave() {
+        rueda.programar("a", 2000);
+        rueda.programar("a", 12_000);
+        rueda.programar("b", 2000);
+
+        rueda.cancelar("a");
+
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(rueda.avanzar(20_000)).containsExactly("b");
+        rueda.cancelar("b");
+        assertThat(rueda.pendientes()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package com.yorusito.backend.product.vigencia;
+
+import com.yorusito.backend.product.entity.Coleccion;
+import com.yorusito.backend.product.event.CatalogoModificadoEvent;
+import com.yorusito.backend.product.repository.ColeccionRepository;
+import com.yorusito.backend.support.RelojManual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VigenciaColeccionesTest {
+
+    private final RelojManual reloj = new RelojManual(Instant.parse("2026-01-01T00:00:00Z"));
+    private final ColeccionRepository coleccionRepository = mock(ColeccionRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private VigenciaColecciones vigencia;
+    private Coleccion coleccion;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        LocalDateTime ahora = LocalDateTime.now(reloj);
+        coleccion = Coleccion.builder()
+                .id(1L)
+                .nombre("Verano")
+                .activa(false)
+                .fechaInicio(ahora.plusSeconds(5))
+                .fechaFin(ahora.plusSeconds(20))
+                .build();
+        when(coleccionRepository.findConVigencia()).thenReturn(List.of(coleccion));
+        when(coleccionRepository.findAllById(anyIterable())).thenReturn(List.of(coleccion));
+        vigencia = new VigenciaColecciones(coleccionRepository, eventPublisher, transactionTemplate, reloj, 1000);
+    }
+
+    @Test
+    void activaYDesactivaLaColeccionEnSusLimites() {
+        vigencia.sincronizar();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        reloj.avanzar(Duration.ofMillis(4999));
+        vigencia.avanzar();
+        assertThat(coleccion.getActiva()).isFalse();
+        verify(coleccionRepository, never()).findAllById(anyIterable());
+
+        reloj.avanzar(Duration.ofMillis(1));
+        vigencia.avanzar();
+        assertThat(coleccion.getActiva()).isTrue();
+        assertThat(coleccion.getFechaActualizacion()).isEqualTo(LocalDateTime.now(reloj));
+        verify(eventPublisher).publishEvent(CatalogoModificadoEvent.completo());
+
+        reloj.avanzar(Duration.ofSeconds(15));
+        vigencia.avanzar();
+        assertThat(coleccion.getActiva()).isFalse();
+    }
+
+    @Test
+    void corrigeAlArrancarLosLimitesQuePasaronConLaAplicacionDetenida() {
+        coleccion.setFechaInicio(LocalDateTime.now(reloj).minusDays(1));
+
+        vigencia.sincronizar();
+
+        assertThat(coleccion.getActiva()).isTrue();
+        verify(eventPublisher).publishEvent(CatalogoModificadoEvent.completo());
+    }
+
+    @Test
+    void noPublicaSiElLimiteNoCambiaElEstado() {
+        vigencia.sincronizar();
+        coleccion.setActiva(true);
+
+        reloj.avanzar(Duration.ofSeconds(5));
+        vigencia.avanzar();
+
+        verify(coleccionRepository).findAllById(anyIterable());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.yorusito.backend.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Reloj que solo avanza cuando la prueba lo pide.
+ */
+public class RelojManual extends Clock {
+
+    private Instant instante;
+
+    public RelojManual(Instant instante) {
+        this.instante = instante;
+    }
+
+    public void avanzar(Duration duracion) {
+        instante = instante.plus(duracion);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+        return instante;
+    }
+}